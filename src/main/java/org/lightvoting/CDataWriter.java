@@ -100,4 +100,86 @@ public final class CDataWriter
         l_plist.close();
         l_file._close();
     }
+
+    /**
+     * append rows to an extensible dataset of integers, the dataset is created with the first rows
+     * @param p_name name of h5 file
+     * @param p_dataset name of dataset
+     * @param p_rows rows in row-major order
+     * @param p_width number of values per row
+     * @param p_chunk number of rows per chunk
+     * @param p_offset number of rows which are already written
+     * @return true if the rows were written
+     */
+    public static boolean append( final String p_name, final String p_dataset, final int[] p_rows, final int p_width, final int p_chunk,
+                                  final long p_offset )
+    {
+        final long l_rows = p_rows.length / p_width;
+        final hdf5.H5File l_file = new hdf5.H5File();
+        hdf5.DataSpace l_dataSpace = null;
+        hdf5.DSetCreatPropList l_plist = null;
+        hdf5.DataSet l_dataset = null;
+        hdf5.DataSpace l_fileSpace = null;
+        hdf5.DataSpace l_memSpace = null;
+
+        try
+        {
+            l_file.openFile( p_name, hdf5.H5F_ACC_RDWR );
+
+            l_dataSpace = new hdf5.DataSpace( 2, new long[]{0, p_width}, new long[]{hdf5.H5S_UNLIMITED, p_width} );
+            l_plist = new hdf5.DSetCreatPropList();
+            l_plist.setChunk( 2, new long[]{p_chunk, p_width} );
+            l_dataset = p_offset == 0 ? create( l_file, p_dataset, l_dataSpace, l_plist ) : new hdf5.DataSet( l_file.asCommonFG().openDataSet( p_dataset ) );
+
+            l_dataset.extend( new long[]{p_offset + l_rows, p_width} );
+
+            l_fileSpace = l_dataset.getSpace();
+            l_fileSpace.selectHyperslab( hdf5.H5S_SELECT_SET, new long[]{l_rows, p_width}, new long[]{p_offset, 0} );
+            l_memSpace = new hdf5.DataSpace( 2, new long[]{l_rows, p_width} );
+
+            l_dataset.write( new IntPointer( p_rows ), new hdf5.DataType( hdf5.PredType.NATIVE_INT() ), l_memSpace, l_fileSpace );
+            return true;
+        }
+        catch ( final Exception l_ex )
+        {
+            l_ex.printStackTrace();
+            return false;
+        }
+        finally
+        {
+            if ( l_memSpace != null )
+                l_memSpace.close();
+            if ( l_fileSpace != null )
+                l_fileSpace.close();
+            if ( l_dataset != null )
+                l_dataset.close();
+            if ( l_plist != null )
+                l_plist.close();
+            if ( l_dataSpace != null )
+                l_dataSpace.close();
+            l_file._close();
+        }
+    }
+
+    /**
+     * create an extensible dataset of integers without rows, a dataset which was created by a failed
+     * earlier append is opened instead
+     * @param p_file h5 file
+     * @param p_dataset name of dataset
+     * @param p_dataSpace data space
+     * @param p_plist creation properties
+     * @return dataset
+     */
+    private static hdf5.DataSet create( final hdf5.H5File p_file, final String p_dataset, final hdf5.DataSpace p_dataSpace,
+                                        final hdf5.DSetCreatPropList p_plist )
+    {
+        try
+        {
+            return new hdf5.DataSet( p_file.asCommonFG().createDataSet( p_dataset, new hdf5.DataType( hdf5.PredType.STD_I32BE() ), p_dataSpace, p_plist ) );
+        }
+        catch ( final RuntimeException l_ex )
+        {
+            return new hdf5.DataSet( p_file.asCommonFG().openDataSet( p_dataset ) );
+        }
+    }
 }
@@ -28,6 +28,8 @@ import org.lightvoting.simulation.action.message.CSend;
 import org.lightvoting.simulation.agent.CChairAgent;
 import org.lightvoting.simulation.agent.CVotingAgent;
 import org.lightvoting.simulation.environment.CEnvironment;
+import org.lightvoting.simulation.environment.CGroup;
+import org.lightvoting.simulation.rule.CVotingRules;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.FileInputStream;
@@ -36,6 +38,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -46,8 +49,13 @@ public final class CMain
 {
     private static CEnvironment s_environment;
     private static int s_altnum;
+    private static int s_comsize = 3;
     private static String s_grouping;
     private static String s_protocol;
+    private static String s_rule = "MINISUM";
+    private static int s_parallelism = 1;
+    private static long s_latency = 10;
+    private static int s_capacity = CGroup.DEFAULTCAPACITY;
 
     /**
      * Hidden constructor
@@ -86,11 +94,13 @@ public final class CMain
             final FileInputStream l_stream = new FileInputStream( p_args[0] );
             final FileInputStream l_chairstream = new FileInputStream( p_args[1] );
 
-            s_environment = new CEnvironment( Integer.parseInt( p_args[2] ), l_name );
+            s_environment = new CEnvironment( Integer.parseInt( p_args[2] ), l_name, s_capacity );
 
             l_votingagentgenerator = new CVotingAgent.CVotingAgentGenerator( new CSend(), l_stream, s_environment, s_altnum, s_grouping, l_name );
             l_agents = l_votingagentgenerator
-                    .generatemultiple( Integer.parseInt( p_args[2] ), new CChairAgent.CChairAgentGenerator( l_chairstream, s_environment, s_grouping, s_protocol, l_name )  )
+                    .generatemultiple( Integer.parseInt( p_args[2] ), new CChairAgent.CChairAgentGenerator( l_chairstream, s_environment, s_grouping, s_protocol, l_name,
+                                                                                                      s_altnum, s_comsize,
+                                                                                                      CVotingRules.of( s_rule, s_parallelism, s_latency, TimeUnit.MILLISECONDS ) )  )
                     .collect( Collectors.toSet() );
 
 
@@ -139,6 +149,10 @@ public final class CMain
                     }
                 } );
             } );
+
+        // write the records of the groups which were archived since the last full block
+        if ( !s_environment.flush() )
+            System.out.println( "Records of archived groups could not be written to " + l_name );
     }
 
     @SuppressWarnings( "unchecked" )
@@ -168,6 +182,16 @@ public final class CMain
                     s_protocol = l_subValues.get( l_subValueKey );
                 if ( "altnum".equals( l_subValueKey ) )
                     s_altnum = Integer.parseInt( l_subValues.get( l_subValueKey ) );
+                if ( "comsize".equals( l_subValueKey ) )
+                    s_comsize = Integer.parseInt( l_subValues.get( l_subValueKey ) );
+                if ( "rule".equals( l_subValueKey ) )
+                    s_rule = l_subValues.get( l_subValueKey );
+                if ( "parallelism".equals( l_subValueKey ) )
+                    s_parallelism = Integer.parseInt( l_subValues.get( l_subValueKey ) );
+                if ( "latency".equals( l_subValueKey ) )
+                    s_latency = Long.parseLong( l_subValues.get( l_subValueKey ) );
+                if ( "capacity".equals( l_subValueKey ) )
+                    s_capacity = Integer.parseInt( l_subValues.get( l_subValueKey ) );
             }
         }
     }
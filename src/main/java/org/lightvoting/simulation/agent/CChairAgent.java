@@ -39,10 +39,17 @@ import org.lightjason.agentspeak.language.instantiable.plan.trigger.ITrigger;
 import org.lightjason.agentspeak.language.score.IAggregation;
 import org.lightvoting.simulation.environment.CEnvironment;
 import org.lightvoting.simulation.environment.CGroup;
-import org.lightvoting.simulation.rule.CMinisumApproval;
+import org.lightvoting.simulation.rule.CBallot;
+import org.lightvoting.simulation.rule.CBatchEvaluator;
+import org.lightvoting.simulation.rule.CProfile;
+import org.lightvoting.simulation.rule.CResultCache;
+import org.lightvoting.simulation.rule.CVotingRules;
+import org.lightvoting.simulation.rule.IElection;
+import org.lightvoting.simulation.rule.IVotingRule;
 
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -86,11 +93,40 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
     private List<CVotingAgent> m_dissVoters;
     private double m_dissThreshold = 1.1;
     private boolean m_iterative;
-    private List<BitVector> m_bitVotes;
+    /**
+     * submitted votes, every distinct vote is stored once with the number of voters
+     */
+    private final CProfile m_bitVotes;
     private final String m_fileName;
 
     /**
-     * constructor of the agent
+     * alternatives
+     */
+    private final List<String> m_alternatives;
+
+    /**
+     * committee size
+     */
+    private final int m_comSize;
+
+    /**
+     * voting rule, shared by all chairs
+     */
+    private final IVotingRule m_rule;
+
+    /**
+     * stateful election of the rule on the stored votes of the iterative protocol, created when the
+     * first voter is removed and updated on every further removal, null otherwise
+     */
+    private IElection m_election;
+
+    /**
+     * group which was already added to the beliefbase
+     */
+    private CGroup m_perceivedGroup;
+
+    /**
+     * constructor of the agent with 6 alternatives and committee size 3
      * @param p_configuration agent configuration of the agent generator
      * @param p_grouping grouping algorithm
      * @param p_protocol voting protocol
@@ -102,11 +138,51 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
                         final String p_protocol,
                         final String p_fileName
     )
+    {
+        this( p_name, p_configuration, p_environment, p_grouping, p_protocol, p_fileName, 6, 3 );
+    }
+
+    /**
+     * constructor of the agent with Minisum Approval
+     * @param p_configuration agent configuration of the agent generator
+     * @param p_grouping grouping algorithm
+     * @param p_protocol voting protocol
+     * @param p_fileName h5 file
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    public CChairAgent( final String p_name, final IAgentConfiguration<CChairAgent> p_configuration, final CEnvironment p_environment, final String p_grouping,
+                        final String p_protocol,
+                        final String p_fileName,
+                        final int p_altNum,
+                        final int p_comSize
+    )
+    {
+        this( p_name, p_configuration, p_environment, p_grouping, p_protocol, p_fileName, p_altNum, p_comSize, CVotingRules.get( "MINISUM" ) );
+    }
+
+    /**
+     * constructor of the agent
+     * @param p_configuration agent configuration of the agent generator
+     * @param p_grouping grouping algorithm
+     * @param p_protocol voting protocol
+     * @param p_fileName h5 file
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @param p_rule voting rule
+     */
+    public CChairAgent( final String p_name, final IAgentConfiguration<CChairAgent> p_configuration, final CEnvironment p_environment, final String p_grouping,
+                        final String p_protocol,
+                        final String p_fileName,
+                        final int p_altNum,
+                        final int p_comSize,
+                        final IVotingRule p_rule
+    )
     {
         super( p_configuration );
         m_name = p_name;
         m_environment = p_environment;
-        m_bitVotes = Collections.synchronizedList( new LinkedList<>() );
+        m_bitVotes = new CProfile();
         m_dissList = Collections.synchronizedList( new LinkedList<>() );
         m_dissVoters = Collections.synchronizedList( new LinkedList<>() );
         m_grouping = p_grouping;
@@ -115,6 +191,13 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
         m_agents = Collections.synchronizedList( new LinkedList<>() );
         m_iterative = false;
         m_fileName = p_fileName;
+
+        // alternatives are named by letters as long as possible, otherwise by their index
+        m_alternatives = new ArrayList<>( p_altNum );
+        for ( int i = 0; i < p_altNum; i++ )
+            m_alternatives.add( p_altNum <= 26 ? String.valueOf( (char) ( 'A' + i ) ) : String.valueOf( i ) );
+        m_comSize = p_comSize;
+        m_rule = p_rule;
     }
 
     // overload agent-cycle
@@ -144,8 +227,12 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
      */
     public void perceiveGroup()
     {
-        if ( !( m_environment.detectGroup( this ) == null ) )
-            this.beliefbase().add( m_environment.detectGroup( this ) );
+        final CGroup l_group = m_environment.detectGroup( this );
+        if ( ( l_group == null ) || ( l_group == m_perceivedGroup ) )
+            return;
+
+        m_perceivedGroup = l_group;
+        this.beliefbase().add( l_group.literal( this ) );
     }
 
     /**
@@ -160,32 +247,28 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
     {
         final CGroup l_group = this.determineGroup();
 
-        // if conditions for election are fulfilled, trigger goal start/criterion/fulfilled
+        // if conditions for election are fulfilled, trigger goal start/criterion/fulfilled,
+        // the group moves from full to voting atomically, so the election is started once
 
-        final ITrigger l_trigger;
+        if ( ( l_group == null ) || !l_group.startProgress() )
+            return;
 
         // if m_iterative is true, we have the case of iterative voting, i.e. we already have the votes
         // we only need to repeat the computation of the result
 
-        if  ( m_iterative && ( l_group.readyForElection() && !( l_group.electionInProgress() ) ) )
+        if  ( m_iterative )
         {
             m_iteration++;
             this.computeResult();
             return;
         }
 
+        final ITrigger l_trigger = CTrigger.from(
+            ITrigger.EType.ADDGOAL,
+            CLiteral.from( "start/criterion/fulfilled" )
+        );
 
-        if ( l_group.readyForElection() && ( !( l_group.electionInProgress() ) ) )
-        {
-            l_group.startProgress();
-
-            l_trigger = CTrigger.from(
-                ITrigger.EType.ADDGOAL,
-                CLiteral.from( "start/criterion/fulfilled" )
-            );
-
-            this.trigger( l_trigger );
-        }
+        this.trigger( l_trigger );
     }
 
     // private methods
@@ -214,15 +297,16 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
     /**
      * store vote
      *
+     * @param p_agentId id of the voting agent
      * @param p_vote vote
      */
     @IAgentActionFilter
     @IAgentActionName( name = "store/vote" )
-    public void storeVote( final String p_agentName, final BitVector p_vote )
+    public void storeVote( final Integer p_agentId, final CBallot p_vote )
     {
         final CGroup l_group = this.determineGroup();
 
-        m_agents.add( l_group.determineAgent( p_agentName ) );
+        m_agents.add( l_group.determineAgent( p_agentId ) );
         m_bitVotes.add( p_vote );
 
         if ( m_bitVotes.size() == l_group.size() )
@@ -259,30 +343,56 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
 
     public void computeResult()
     {
-        final CGroup l_group = this.determineGroup();
+        System.out.println( " Alternatives: " + m_alternatives );
 
-        final CMinisumApproval l_minisumApproval = new CMinisumApproval();
-
-        final List<String> l_alternatives = new LinkedList<>();
+        System.out.println( " Votes: " + m_bitVotes );
 
-        for ( char l_char : "ABCDEF".toCharArray() )
+        // groups with the same votes share the result of the selected rule, in iterative rounds the stateful
+        // election keeps the state of the remaining votes, so they do not need to re-tally
+        final IVotingRule l_rule = m_rule.select( m_bitVotes.distinct(), m_alternatives.size(), m_comSize );
+        if ( m_iterative && l_rule == m_rule && m_election != null )
+        {
+            this.publishResult( CResultCache.SHARED.get( l_rule.name(), m_bitVotes, m_alternatives.size(), m_comSize, m_election::result ) );
+            return;
+        }
 
-            l_alternatives.add( String.valueOf( l_char ) );
+        // all other elections are batched with the elections of the other chairs, the result is
+        // published by goal result/computed, so the agent cycle does not wait for the batch
+        CBatchEvaluator.SHARED.submit( l_rule, m_alternatives, m_bitVotes, m_comSize ).whenComplete( ( i, j ) ->
+        {
+            if ( j != null )
+            {
+                j.printStackTrace();
+                return;
+            }
 
-        System.out.println( " Alternatives: " + l_alternatives );
+            this.trigger( CTrigger.from(
+                ITrigger.EType.ADDGOAL,
+                CLiteral.from( "result/computed", CRawTerm.from( i ) )
+            ) );
+        } );
+    }
 
-        System.out.println( " Votes: " + m_bitVotes );
+    /**
+     * publish result of election to the group
+     *
+     * @param p_result committee
+     */
+    @IAgentActionFilter
+    @IAgentActionName( name = "publish/result" )
 
-        final BitVector l_comResultBV = l_minisumApproval.applyRuleBV( l_alternatives, m_bitVotes, 3 );
+    public void publishResult( final CBallot p_result )
+    {
+        final CGroup l_group = this.determineGroup();
 
-        System.out.println( " Result of election as BV: " + l_comResultBV );
+        System.out.println( " Result of election as BV: " + p_result );
 
-        // set inProgress and readyForElection to false in group
+        // the election of the group is finished
         l_group.reset();
 
         if ( "BASIC".equals( m_protocol ) )
         {
-            this.beliefbase().add( l_group.updateBasic( this, l_comResultBV ) );
+            this.beliefbase().add( l_group.updateBasic( this, p_result ) );
         }
 
 
@@ -293,12 +403,20 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
             m_environment.reopen( l_group );
         }
 
+        // in the basic protocol, a group which is not reopened has no further elections
+        if ( "BASIC".equals( m_protocol ) )
+        {
+            if ( l_group.finish() )
+                this.archive( l_group );
+            return;
+        }
+
         // for the iterative case, you need to differentiate between the final election and intermediate elections.
         if ( "ITERATIVE".equals( m_protocol ) && ( l_group.finale() ) || m_iterative )
         {
             System.out.println( " Update iterative " );
 
-            this.beliefbase().add( l_group.updateIterative( this,  l_comResultBV, m_iteration ) );
+            this.beliefbase().add( l_group.updateIterative( this,  p_result, m_iteration ) );
             return;
         }
 
@@ -306,7 +424,7 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
         if ( "ITERATIVE".equals( m_protocol ) && !l_group.finale() )
         {
             System.out.println( " Update basic " );
-            this.beliefbase().add( l_group.updateBasic( this,  l_comResultBV ) );
+            this.beliefbase().add( l_group.updateBasic( this,  p_result ) );
         }
 
         // TODO test all cases
@@ -316,18 +434,19 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
     /**
      * store dissatisfaction value
      *
+     * @param p_agentId id of the voting agent
      * @param p_diss dissatisfaction value
      * @param p_iteration iteration number
      */
     @IAgentActionFilter
     @IAgentActionName( name = "store/diss" )
 
-    public void storeDiss( final String p_name, final Double p_diss, final Integer p_iteration )
+    public void storeDiss( final Integer p_agentId, final Double p_diss, final Integer p_iteration )
     {
         final CGroup l_group = this.determineGroup();
 
         m_dissList.add( p_diss );
-        final CVotingAgent l_dissAg = l_group.determineAgent( p_name );
+        final CVotingAgent l_dissAg = l_group.determineAgent( p_agentId );
         m_dissVoters.add( l_dissAg );
 
         System.out.println( "Storing diss " + p_diss );
@@ -368,7 +487,8 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
             final CVotingAgent l_maxDissAg = m_dissVoters.get( l_maxIndex );
             System.out.println( " Most dissatisfied voter is " + l_maxDissAg.name() );
             // remove vote of most dissatisfied voter from list
-            m_bitVotes.remove( l_maxDissAg.getBitVote() );
+            if ( m_bitVotes.remove( l_maxDissAg.getBitVote() ) && m_election != null )
+                m_election.remove( l_maxDissAg.getBitVote() );
             m_dissVoters.remove( l_maxDissAg );
             l_group.remove( l_maxDissAg );
 
@@ -378,15 +498,63 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
             m_dissList.clear();
 
             m_iterative = true;
-            l_group.makeReady();
+            if ( m_election == null )
+                m_election = this.election();
 
             if ( l_group.size() == 0 )
+            {
                 System.out.println( " Voter list is empty, we are done " );
+                if ( l_group.finish() )
+                    this.archive( l_group );
+                return;
+            }
 
+            l_group.makeReady();
             return;
         }
 
         System.out.println( " No dissatisfied voter left, we are done " );
+        if ( l_group.finish() )
+            this.archive( l_group );
+    }
+
+    /**
+     * archive final group and release the votes and dissatisfaction values of the election
+     * @param p_group final group
+     */
+    private void archive( final CGroup p_group )
+    {
+        if ( !m_environment.archive( p_group ) )
+            return;
+
+        this.beliefbase().remove( p_group.literal( this ) );
+        m_perceivedGroup = null;
+
+        m_bitVotes.clear();
+        m_election = null;
+        m_agents.clear();
+        m_dissList.clear();
+        m_dissVoters.clear();
+        m_iterative = false;
+    }
+
+    /**
+     * create the stateful election of the rule on the stored votes
+     * @return election or null if the rule has no incremental election
+     */
+    private IElection election()
+    {
+        final IElection l_election = m_rule.election( m_alternatives.size(), m_comSize );
+        if ( l_election == null )
+            return null;
+
+        synchronized ( m_bitVotes )
+        {
+            for ( int i = 0; i < m_bitVotes.distinct(); i++ )
+                for ( int j = 0; j < m_bitVotes.count( i ); j++ )
+                    l_election.add( m_bitVotes.ballot( i ) );
+        }
+        return l_election;
     }
 
     private int getMaxIndex( final List<Double> p_dissValues )
@@ -425,7 +593,22 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
         private final String m_fileName;
 
         /**
-         * constructor of the generator
+         * number of alternatives
+         */
+        private final int m_altNum;
+
+        /**
+         * committee size
+         */
+        private final int m_comSize;
+
+        /**
+         * voting rule, shared by all chairs
+         */
+        private final IVotingRule m_rule;
+
+        /**
+         * constructor of the generator with 6 alternatives and committee size 3
          * @param p_stream ASL code as any stream e.g. FileInputStream
          * @param p_grouping grouping algorithm
          * @param p_protocol voting protocol
@@ -435,6 +618,41 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
         public CChairAgentGenerator( final InputStream p_stream, final CEnvironment p_environment, final String p_grouping, final String p_protocol,
                                      final String p_fileName
         ) throws Exception
+        {
+            this( p_stream, p_environment, p_grouping, p_protocol, p_fileName, 6, 3 );
+        }
+
+        /**
+         * constructor of the generator
+         * @param p_stream ASL code as any stream e.g. FileInputStream
+         * @param p_grouping grouping algorithm
+         * @param p_protocol voting protocol
+         * @param p_fileName h5 file
+         * @param p_altNum number of alternatives
+         * @param p_comSize committee size
+         * @throws Exception Thrown if something goes wrong while generating agents.
+         */
+        public CChairAgentGenerator( final InputStream p_stream, final CEnvironment p_environment, final String p_grouping, final String p_protocol,
+                                     final String p_fileName, final int p_altNum, final int p_comSize
+        ) throws Exception
+        {
+            this( p_stream, p_environment, p_grouping, p_protocol, p_fileName, p_altNum, p_comSize, CVotingRules.get( "MINISUM" ) );
+        }
+
+        /**
+         * constructor of the generator
+         * @param p_stream ASL code as any stream e.g. FileInputStream
+         * @param p_grouping grouping algorithm
+         * @param p_protocol voting protocol
+         * @param p_fileName h5 file
+         * @param p_altNum number of alternatives
+         * @param p_comSize committee size
+         * @param p_rule voting rule, shared by all chairs
+         * @throws Exception Thrown if something goes wrong while generating agents.
+         */
+        public CChairAgentGenerator( final InputStream p_stream, final CEnvironment p_environment, final String p_grouping, final String p_protocol,
+                                     final String p_fileName, final int p_altNum, final int p_comSize, final IVotingRule p_rule
+        ) throws Exception
         {
             super(
                 // input ASL stream
@@ -463,6 +681,9 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
             m_grouping = p_grouping;
             m_protocol = p_protocol;
             m_fileName = p_fileName;
+            m_altNum = p_altNum;
+            m_comSize = p_comSize;
+            m_rule = p_rule;
         }
 
         /**
@@ -478,7 +699,8 @@ public final class CChairAgent extends IBaseAgent<CChairAgent>
                 // create a string with the agent name "chair <number>"
                 // get the value of the counter first and increment, build the agent
                 // name with message format (see Java documentation)
-                MessageFormat.format( "chair {0}", m_agentcounter.getAndIncrement() ), m_configuration, m_environment, m_grouping, m_protocol, m_fileName );
+                MessageFormat.format( "chair {0}", m_agentcounter.getAndIncrement() ), m_configuration, m_environment, m_grouping, m_protocol, m_fileName,
+                m_altNum, m_comSize, m_rule );
             l_chairAgent.sleep( Integer.MAX_VALUE );
             return l_chairAgent;
         }
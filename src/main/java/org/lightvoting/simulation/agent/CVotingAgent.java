@@ -24,7 +24,6 @@
 package org.lightvoting.simulation.agent;
 
 import cern.colt.Arrays;
-import cern.colt.bitvector.BitVector;
 import com.google.common.util.concurrent.AtomicDoubleArray;
 import org.lightjason.agentspeak.action.binding.IAgentAction;
 import org.lightjason.agentspeak.action.binding.IAgentActionFilter;
@@ -43,15 +42,11 @@ import org.lightvoting.simulation.action.message.CSend;
 import org.lightvoting.simulation.constants.CVariableBuilder;
 import org.lightvoting.simulation.environment.CEnvironment;
 import org.lightvoting.simulation.environment.CGroup;
+import org.lightvoting.simulation.environment.CGroupRegistry;
+import org.lightvoting.simulation.rule.CBallot;
 
 import java.io.InputStream;
 import java.text.MessageFormat;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
@@ -68,6 +63,10 @@ import java.util.stream.Stream;
 @IAgentAction
 public final class CVotingAgent extends IBaseAgent<CVotingAgent>
 {
+    /**
+     * dense id of the agent, the ids of an environment are assigned in creation order starting with 0
+     */
+    private final int m_id;
 
     /**
      * name of the agent
@@ -115,7 +114,7 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
      * threshold for joining a group in the case of coordinated grouping
      */
     private Integer m_joinThreshold;
-    private final BitVector m_bitVote;
+    private final CBallot m_bitVote;
     private final String m_fileName;
 
     /**
@@ -137,6 +136,7 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
     )
     {
         super( p_configuration );
+        m_id = p_environment.nextAgentId();
         m_name = p_name;
         m_environment = p_environment;
 
@@ -184,6 +184,26 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
         return m_name;
     }
 
+    /**
+     * get agent's dense id
+     *
+     * @return id of agent
+     */
+    public final int id()
+    {
+        return m_id;
+    }
+
+    /**
+     * get agent's environment
+     *
+     * @return environment
+     */
+    public final CEnvironment environment()
+    {
+        return m_environment;
+    }
+
     /**
      * get associated chair agent
      *
@@ -199,7 +219,7 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
         return m_vote;
     }
 
-    public BitVector getBitVote()
+    public CBallot getBitVote()
     {
         return m_bitVote;
     }
@@ -237,7 +257,7 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
                 ITrigger.EType.ADDGOAL,
                 CLiteral.from(
                     "vote/received",
-                    CRawTerm.from( this.name() ),
+                    CRawTerm.from( m_id ),
                     CRawTerm.from( this.getBitVote() )
                 )
             )
@@ -249,14 +269,14 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
 
     @IAgentActionFilter
     @IAgentActionName( name = "submit/dissatisfaction" )
-    private void submitDiss( final CChairAgent p_chairAgent, final Integer p_iteration, final BitVector p_result ) throws InterruptedException
+    private void submitDiss( final CChairAgent p_chairAgent, final Integer p_iteration, final CBallot p_result ) throws InterruptedException
     {
         p_chairAgent.trigger(
             CTrigger.from(
                 ITrigger.EType.ADDGOAL,
                 CLiteral.from(
                     "diss/received",
-                    CRawTerm.from( this.name() ),
+                    CRawTerm.from( m_id ),
                     CRawTerm.from( this.computeDissBV( p_result ) ),
                     CRawTerm.from( p_iteration )
                 )
@@ -264,7 +284,7 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
         );
     }
 
-    private Double computeDissBV( final BitVector p_result )
+    private Double computeDissBV( final CBallot p_result )
     {
         double l_diss = 0;
 
@@ -305,35 +325,26 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
         return new AtomicIntegerArray( l_voteValues );
     }
 
-    private BitVector convertPreferencesToBits( final AtomicDoubleArray p_atomicPrefValues )
+    private CBallot convertPreferencesToBits( final AtomicDoubleArray p_atomicPrefValues )
     {
-        final BitVector l_voteValues = new BitVector( m_altNum );
+        final long[] l_voteValues = new long[( m_altNum + 63 ) >>> 6];
         for ( int i = 0; i < m_altNum; i++ )
             if ( p_atomicPrefValues.get( i ) > 0.5 )
-                l_voteValues.put( i, true );
-            else
-                l_voteValues.put( i, false );
-        System.out.println( "Vote as BitVector: " + l_voteValues  );
-        return l_voteValues;
+                l_voteValues[i >>> 6] |= 1L << i;
+        final CBallot l_ballot = CBallot.of( l_voteValues, m_altNum );
+        System.out.println( "Vote as ballot: " + l_ballot  );
+        return l_ballot;
     }
 
 
-    private List<CGroup> determineActiveGroups()
+    private CGroupRegistry determineActiveGroups()
     {
-        final AtomicReference<List<CGroup>> l_groupList = new AtomicReference<>();
+        final AtomicReference<CGroupRegistry> l_openGroups = new AtomicReference<>();
 
         m_beliefbase.beliefbase().literal( "groups" ).stream().forEach( i ->
-            l_groupList.set( ( (ILiteral) i ).values().findFirst().get().raw() ) );
+            l_openGroups.set( ( (ILiteral) i ).values().findFirst().get().raw() ) );
 
-        final List<CGroup> l_activeGroups = new LinkedList<>();
-
-        for ( int i = 0; i < l_groupList.get().size(); i++ )
-            if ( l_groupList.get().get( i ).open() )
-            {
-                l_activeGroups.add( l_groupList.get().get( i ) );
-            }
-
-        return l_activeGroups;
+        return l_openGroups.get();
     }
 
     private void openNewGroup()
@@ -353,18 +364,21 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
     private void joinGroupRandom()
     {
 
-        final List<CGroup> l_activeGroups = this.determineActiveGroups();
+        final CGroup l_randomGroup = this.determineActiveGroups().random( new Random() );
 
-        if ( l_activeGroups.isEmpty() )
+        if ( l_randomGroup == null )
         {
             this.openNewGroup();
             return;
         }
 
-        final Random l_rand = new Random();
+        // the group may have been filled by another agent in the meantime
+        if ( !m_environment.addAgentRandom( l_randomGroup, this ) )
+        {
+            this.openNewGroup();
+            return;
+        }
 
-        final CGroup l_randomGroup = l_activeGroups.get( l_rand.nextInt( l_activeGroups.size() ) );
-        m_environment.addAgentRandom( l_randomGroup, this );
         this.beliefbase().add( l_randomGroup.literal( this ) );
 
     }
@@ -373,48 +387,22 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
     {
         System.out.println( "join group according to coordinated grouping algorithm" );
 
-        final List<CGroup> l_activeGroups = this.determineActiveGroups();
+        // nearest open group whose committee is within the join threshold, otherwise create a new group
+        final CGroup l_group = this.determineActiveGroups().nearest( this.getBitVote(), m_joinThreshold );
 
-        if ( l_activeGroups.isEmpty() )
+        if ( l_group == null )
         {
             this.openNewGroup();
             return;
         }
 
-        else
-            this.determineGroupCoordinated( l_activeGroups );
-    }
-
-    private void determineGroupCoordinated( final List<CGroup> p_activeGroups )
-    {
-        final CGroup l_group;
-        // choose group to join
-        final Map<CGroup, Integer> l_groupDistances = new HashMap<>();
-        final BitVector l_vote = this.getBitVote();
-        System.out.println( "Vote: " + l_vote );
-        for ( int i = 0; i < p_activeGroups.size(); i++ )
-        {
-            final BitVector l_com =  p_activeGroups.get( i ).result();
-            System.out.println( "Committee: " + l_com );
-
-            System.out.println( "Vote: " + l_vote );
-            System.out.println( "Committee: " + l_com );
-            l_com.xor( l_vote );
-            final int l_HD = l_com.cardinality();
-            System.out.println( "Hamming distance: " + l_HD );
-            l_groupDistances.put( p_activeGroups.get( i ), l_HD );
-        }
-        final Map l_sortedDistances = this.sortMapDESC( l_groupDistances );
-        final Map.Entry<CGroup, Integer> l_entry = (Map.Entry<CGroup, Integer>) l_sortedDistances.entrySet().iterator().next();
-        l_group = l_entry.getKey();
-
-        // if Hamming distance is above the threshold, do not join the chair but create a new group
-        if ( l_entry.getValue() > m_joinThreshold )
+        // the group may have been joined by another agent in the meantime
+        if ( !m_environment.addAgentCoordinated( l_group, this ) )
         {
             this.openNewGroup();
             return;
         }
-        m_environment.addAgentCoordinated( l_group, this );
+
         this.beliefbase().add( l_group.literal( this ) );
         System.out.println( this.name() + " joins group " + l_group );
     }
@@ -440,26 +428,6 @@ public final class CVotingAgent extends IBaseAgent<CVotingAgent>
 
 
 
-    private Map sortMapDESC( final Map<CGroup, Integer> p_valuesMap )
-    {
-        final List<Map.Entry<CGroup, Integer>> l_list = new LinkedList<>( p_valuesMap.entrySet() );
-
-        /* Sorting the list based on values in descending order */
-
-        Collections.sort( l_list, ( p_first, p_second ) ->
-            p_second.getValue().compareTo( p_first.getValue() ) );
-
-        /* Maintaining insertion order with the help of LinkedList */
-
-        final Map<CGroup, Integer> l_sortedMap = new LinkedHashMap<>();
-        for ( final Map.Entry<CGroup, Integer> l_entry : l_list )
-        {
-            l_sortedMap.put( l_entry.getKey(), l_entry.getValue() );
-        }
-
-        return l_sortedMap;
-    }
-
     /**
      * Class CVotingAgentGenerator
      */
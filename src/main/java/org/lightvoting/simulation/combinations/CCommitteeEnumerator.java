@@ -0,0 +1,308 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.combinations;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+
+/**
+ * lazy enumerator of all committees of a fixed size, i.e. all {0,1}^m vectors with exactly k ones.
+ * A committee is encoded as long mask, bit i is set if alternative i is part of the committee.
+ * The committees are generated one by one in colexicographic order (Gosper's hack), the position
+ * of a committee in this order is its rank, so that ranges of the committee space can be enumerated
+ * without generating the preceding committees.
+ */
+public final class CCommitteeEnumerator implements PrimitiveIterator.OfLong
+{
+    /**
+     * maximal number of alternatives which can be encoded in a mask
+     */
+    public static final int MAXALTERNATIVES = Long.SIZE;
+
+    /**
+     * Pascal's triangle up to 64 alternatives, the largest value C(64,32) fits into a long
+     */
+    private static final long[][] BINOMIALS = binomials();
+
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * committee size
+     */
+    private final int m_comSize;
+
+    /**
+     * number of committees which still need to be returned
+     */
+    private long m_remaining;
+
+    /**
+     * next committee
+     */
+    private long m_current;
+
+    /**
+     * materialised committee space or null if the committees are generated on the fly
+     */
+    private final long[] m_committees;
+
+    /**
+     * rank of the next committee within the materialised committee space
+     */
+    private long m_rank;
+
+    /**
+     * constructor for the whole committee space
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    public CCommitteeEnumerator( final int p_altNum, final int p_comSize )
+    {
+        this( p_altNum, p_comSize, 0, binomial( p_altNum, p_comSize ) );
+    }
+
+    /**
+     * constructor for a range of the committee space
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @param p_fromRank rank of the first committee (inclusive)
+     * @param p_toRank rank of the last committee (exclusive)
+     */
+    public CCommitteeEnumerator( final int p_altNum, final int p_comSize, final long p_fromRank, final long p_toRank )
+    {
+        if ( p_altNum < 0 || p_altNum > MAXALTERNATIVES )
+            throw new IllegalArgumentException( "number of alternatives must be between 0 and " + MAXALTERNATIVES );
+        if ( p_comSize < 0 || p_comSize > p_altNum )
+            throw new IllegalArgumentException( "committee size must be between 0 and the number of alternatives" );
+        if ( p_fromRank < 0 || p_fromRank > p_toRank || p_toRank > binomial( p_altNum, p_comSize ) )
+            throw new IllegalArgumentException( "invalid rank range [" + p_fromRank + ", " + p_toRank + ")" );
+
+        m_altNum = p_altNum;
+        m_comSize = p_comSize;
+        m_remaining = p_toRank - p_fromRank;
+        m_current = m_remaining == 0 ? 0 : unrank( p_fromRank, p_comSize );
+        m_committees = null;
+    }
+
+    /**
+     * constructor for a range of a materialised committee space
+     *
+     * @param p_committees committees in colexicographic order
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @param p_fromRank rank of the first committee (inclusive)
+     * @param p_toRank rank of the last committee (exclusive)
+     */
+    CCommitteeEnumerator( final long[] p_committees, final int p_altNum, final int p_comSize, final long p_fromRank, final long p_toRank )
+    {
+        if ( p_fromRank < 0 || p_fromRank > p_toRank || p_toRank > p_committees.length )
+            throw new IllegalArgumentException( "invalid rank range [" + p_fromRank + ", " + p_toRank + ")" );
+
+        m_altNum = p_altNum;
+        m_comSize = p_comSize;
+        m_remaining = p_toRank - p_fromRank;
+        m_committees = p_committees;
+        m_rank = p_fromRank;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return m_remaining > 0;
+    }
+
+    /**
+     * return next committee
+     *
+     * @return committee mask
+     */
+    @Override
+    public long nextLong()
+    {
+        if ( m_remaining <= 0 )
+            throw new NoSuchElementException();
+
+        if ( m_committees != null )
+        {
+            m_remaining--;
+            return m_committees[(int) m_rank++];
+        }
+
+        final long l_committee = m_current;
+
+        // compute successor with the same number of ones, only if it exists (avoids overflow on the last committee)
+        if ( --m_remaining > 0 )
+        {
+            final long l_ripple = m_current + ( m_current & -m_current );
+            // shift in two steps, a single shift by 64 would be masked to a shift by 0
+            m_current = ( ( l_ripple ^ m_current ) >>> 2 >>> Long.numberOfTrailingZeros( m_current ) ) | l_ripple;
+        }
+
+        return l_committee;
+    }
+
+    /**
+     * skip committees
+     *
+     * @param p_count number of committees to skip
+     */
+    public void skip( final long p_count )
+    {
+        if ( p_count <= 0 )
+            return;
+
+        if ( p_count >= m_remaining )
+        {
+            m_remaining = 0;
+            return;
+        }
+
+        m_remaining -= p_count;
+        if ( m_committees != null )
+            m_rank += p_count;
+        else
+            m_current = unrank( rank( m_current ) + p_count, m_comSize );
+    }
+
+    /**
+     * return number of alternatives
+     *
+     * @return number of alternatives
+     */
+    public int alternatives()
+    {
+        return m_altNum;
+    }
+
+    /**
+     * return committee size
+     *
+     * @return committee size
+     */
+    public int committeeSize()
+    {
+        return m_comSize;
+    }
+
+    /**
+     * binomial coefficient
+     *
+     * @param p_n number of elements
+     * @param p_k number of chosen elements
+     * @return number of k-subsets of an n-set
+     */
+    public static long binomial( final int p_n, final int p_k )
+    {
+        if ( p_n < 0 || p_k < 0 || p_k > p_n )
+            return 0;
+        return BINOMIALS[p_n][p_k];
+    }
+
+    /**
+     * compute rank of a committee in colexicographic order (combinatorial number system)
+     *
+     * @param p_committee committee mask
+     * @return rank
+     */
+    public static long rank( final long p_committee )
+    {
+        long l_rank = 0;
+        long l_rest = p_committee;
+
+        for ( int i = 1; l_rest != 0; i++ )
+        {
+            l_rank += binomial( Long.numberOfTrailingZeros( l_rest ), i );
+            l_rest &= l_rest - 1;
+        }
+
+        return l_rank;
+    }
+
+    /**
+     * compute committee for a given rank in colexicographic order
+     *
+     * @param p_rank rank
+     * @param p_comSize committee size
+     * @return committee mask
+     */
+    public static long unrank( final long p_rank, final int p_comSize )
+    {
+        long l_committee = 0;
+        long l_rank = p_rank;
+        int l_position = MAXALTERNATIVES;
+
+        for ( int i = p_comSize; i > 0; i-- )
+        {
+            // largest position with C(position, i) <= rank
+            do
+                l_position--;
+            while ( binomial( l_position, i ) > l_rank );
+
+            l_committee |= 1L << l_position;
+            l_rank -= binomial( l_position, i );
+        }
+
+        return l_committee;
+    }
+
+    /**
+     * lexicographic tie-breaking, i.e. compares the sorted index lists of the alternatives,
+     * e.g. {0, 1, 5} precedes {0, 2, 3}
+     *
+     * @param p_first first committee mask
+     * @param p_second second committee mask
+     * @return true if the first committee precedes the second one
+     */
+    public static boolean precedes( final long p_first, final long p_second )
+    {
+        return Long.compareUnsigned( Long.reverse( p_first ), Long.reverse( p_second ) ) > 0;
+    }
+
+    /**
+     * build Pascal's triangle
+     *
+     * @return binomial coefficients
+     */
+    private static long[][] binomials()
+    {
+        final long[][] l_binomials = new long[MAXALTERNATIVES + 1][];
+
+        for ( int n = 0; n <= MAXALTERNATIVES; n++ )
+        {
+            l_binomials[n] = new long[n + 1];
+            l_binomials[n][0] = 1;
+            l_binomials[n][n] = 1;
+            for ( int k = 1; k < n; k++ )
+                l_binomials[n][k] = l_binomials[n - 1][k - 1] + l_binomials[n - 1][k];
+        }
+
+        return l_binomials;
+    }
+}
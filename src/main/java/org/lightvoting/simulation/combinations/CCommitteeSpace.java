@@ -0,0 +1,204 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.combinations;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * process-wide committee space of all committees of a fixed size, shared by all chairs and threads.
+ * Spaces up to MAXCACHED committees are materialised once as immutable array of committee masks
+ * in colexicographic order, larger spaces are not stored but streamed by an enumerator.
+ */
+public final class CCommitteeSpace
+{
+    /**
+     * maximal number of committees which are materialised (32 MB per space)
+     */
+    public static final long MAXCACHED = 1 << 22;
+
+    /**
+     * spaces by number of alternatives and committee size
+     */
+    private static final Map<Integer, CCommitteeSpace> SPACES = new ConcurrentHashMap<>();
+
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * committee size
+     */
+    private final int m_comSize;
+
+    /**
+     * number of committees
+     */
+    private final long m_size;
+
+    /**
+     * committees in colexicographic order or null if the space is streamed
+     */
+    private final long[] m_committees;
+
+    /**
+     * constructor
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    private CCommitteeSpace( final int p_altNum, final int p_comSize )
+    {
+        m_altNum = p_altNum;
+        m_comSize = p_comSize;
+        m_size = CCommitteeEnumerator.binomial( p_altNum, p_comSize );
+
+        if ( m_size > MAXCACHED )
+        {
+            m_committees = null;
+            return;
+        }
+
+        m_committees = new long[(int) m_size];
+        final CCommitteeEnumerator l_enumerator = new CCommitteeEnumerator( p_altNum, p_comSize );
+        for ( int i = 0; i < m_committees.length; i++ )
+            m_committees[i] = l_enumerator.nextLong();
+    }
+
+    /**
+     * return the shared committee space, the space is built on first access
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee space
+     */
+    public static CCommitteeSpace of( final int p_altNum, final int p_comSize )
+    {
+        if ( p_altNum < 0 || p_altNum > CCommitteeEnumerator.MAXALTERNATIVES )
+            throw new IllegalArgumentException( "number of alternatives must be between 0 and " + CCommitteeEnumerator.MAXALTERNATIVES );
+        if ( p_comSize < 0 || p_comSize > p_altNum )
+            throw new IllegalArgumentException( "committee size must be between 0 and the number of alternatives" );
+
+        return SPACES.computeIfAbsent( p_altNum * ( CCommitteeEnumerator.MAXALTERNATIVES + 1 ) + p_comSize, i -> new CCommitteeSpace( p_altNum, p_comSize ) );
+    }
+
+    /**
+     * return number of alternatives
+     *
+     * @return number of alternatives
+     */
+    public int alternatives()
+    {
+        return m_altNum;
+    }
+
+    /**
+     * return committee size
+     *
+     * @return committee size
+     */
+    public int committeeSize()
+    {
+        return m_comSize;
+    }
+
+    /**
+     * return number of committees
+     *
+     * @return number of committees
+     */
+    public long size()
+    {
+        return m_size;
+    }
+
+    /**
+     * check whether the committees are materialised
+     *
+     * @return true if the committees are stored in memory
+     */
+    public boolean cached()
+    {
+        return m_committees != null;
+    }
+
+    /**
+     * return committee with the given rank
+     *
+     * @param p_rank rank in colexicographic order
+     * @return committee mask
+     */
+    public long committee( final long p_rank )
+    {
+        if ( p_rank < 0 || p_rank >= m_size )
+            throw new IndexOutOfBoundsException( "rank " + p_rank + " is not within [0, " + m_size + ")" );
+
+        return m_committees != null ? m_committees[(int) p_rank] : CCommitteeEnumerator.unrank( p_rank, m_comSize );
+    }
+
+    /**
+     * return the materialised committees, the array is shared and must not be modified
+     *
+     * @return committees in colexicographic order
+     */
+    public long[] committees()
+    {
+        if ( m_committees == null )
+            throw new IllegalStateException( this + " is not materialised" );
+
+        return m_committees;
+    }
+
+    /**
+     * enumerate the whole committee space
+     *
+     * @return enumerator
+     */
+    public CCommitteeEnumerator iterator()
+    {
+        return this.iterator( 0, m_size );
+    }
+
+    /**
+     * enumerate a range of the committee space
+     *
+     * @param p_fromRank rank of the first committee (inclusive)
+     * @param p_toRank rank of the last committee (exclusive)
+     * @return enumerator
+     */
+    public CCommitteeEnumerator iterator( final long p_fromRank, final long p_toRank )
+    {
+        return m_committees != null
+               ? new CCommitteeEnumerator( m_committees, m_altNum, m_comSize, p_fromRank, p_toRank )
+               : new CCommitteeEnumerator( m_altNum, m_comSize, p_fromRank, p_toRank );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "committee space C(" + m_altNum + ", " + m_comSize + ") with " + m_size + ( m_committees != null ? " cached" : " streamed" ) + " committees";
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import org.lightvoting.simulation.rule.CBallot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * metric index of committees under the Hamming distance (BK-tree). Every distinct committee is a node,
+ * which holds the values with this committee, the children of a node are keyed by their distance to it.
+ * By the triangle inequality, a query with radius r only descends into children whose key differs by at
+ * most r from the distance of the node, so that near committees are found without visiting all of them.
+ * Removed committees stay in the tree as empty nodes until they outnumber the live ones, then the tree
+ * is rebuilt. The index is not thread-safe.
+ *
+ * @param <T> value type
+ */
+public final class CCommitteeIndex<T>
+{
+    /**
+     * minimal number of empty nodes before the tree is rebuilt
+     */
+    private static final int MINREBUILD = 16;
+
+    /**
+     * node of each value
+     */
+    private final Map<T, CNode<T>> m_values = new HashMap<>();
+
+    /**
+     * node of each committee
+     */
+    private final Map<CBallot, CNode<T>> m_nodes = new HashMap<>();
+
+    /**
+     * root of the tree
+     */
+    private CNode<T> m_root;
+
+    /**
+     * number of empty nodes
+     */
+    private int m_empty;
+
+    /**
+     * add or move a value
+     *
+     * @param p_value value
+     * @param p_committee committee
+     */
+    public void put( final T p_value, final CBallot p_committee )
+    {
+        final CNode<T> l_current = m_values.get( p_value );
+        if ( l_current != null && l_current.m_committee.equals( p_committee ) )
+            return;
+
+        this.remove( p_value );
+
+        CNode<T> l_node = m_nodes.get( p_committee );
+        if ( l_node == null )
+            l_node = this.insert( p_committee );
+        else if ( l_node.m_values.isEmpty() )
+            m_empty--;
+
+        l_node.m_values.add( p_value );
+        m_values.put( p_value, l_node );
+    }
+
+    /**
+     * remove a value
+     *
+     * @param p_value value
+     * @return true if the value was indexed
+     */
+    public boolean remove( final T p_value )
+    {
+        final CNode<T> l_node = m_values.remove( p_value );
+        if ( l_node == null )
+            return false;
+
+        l_node.m_values.remove( p_value );
+        if ( l_node.m_values.isEmpty() && ++m_empty >= MINREBUILD && m_empty > m_nodes.size() - m_empty )
+            this.rebuild();
+
+        return true;
+    }
+
+    /**
+     * return number of values
+     *
+     * @return number of values
+     */
+    public int size()
+    {
+        return m_values.size();
+    }
+
+    /**
+     * return nearest value within a radius, values with the same committee are returned in insertion order
+     *
+     * @param p_query query ballot
+     * @param p_radius maximal Hamming distance
+     * @return value or null if no committee is within the radius
+     */
+    public T nearest( final CBallot p_query, final int p_radius )
+    {
+        if ( m_root == null )
+            return null;
+
+        CNode<T> l_best = null;
+        int l_radius = p_radius;
+
+        final Deque<CNode<T>> l_stack = new ArrayDeque<>();
+        l_stack.push( m_root );
+        while ( !l_stack.isEmpty() )
+        {
+            final CNode<T> l_node = l_stack.pop();
+            final int l_distance = l_node.m_committee.hammingDistance( p_query );
+
+            if ( !l_node.m_values.isEmpty() && l_distance <= l_radius && ( l_best == null || l_distance < l_radius ) )
+            {
+                l_best = l_node;
+                l_radius = l_distance;
+            }
+
+            for ( final Map.Entry<Integer, CNode<T>> l_child : l_node.m_children.entrySet() )
+                if ( Math.abs( l_child.getKey() - l_distance ) <= l_radius )
+                    l_stack.push( l_child.getValue() );
+        }
+
+        return l_best == null ? null : l_best.m_values.iterator().next();
+    }
+
+    /**
+     * insert new node
+     *
+     * @param p_committee committee
+     * @return node
+     */
+    private CNode<T> insert( final CBallot p_committee )
+    {
+        final CNode<T> l_node = new CNode<>( p_committee );
+        m_nodes.put( p_committee, l_node );
+
+        if ( m_root == null )
+        {
+            m_root = l_node;
+            return l_node;
+        }
+
+        CNode<T> l_parent = m_root;
+        while ( true )
+        {
+            final int l_distance = l_parent.m_committee.hammingDistance( p_committee );
+            final CNode<T> l_child = l_parent.m_children.get( l_distance );
+            if ( l_child == null )
+            {
+                l_parent.m_children.put( l_distance, l_node );
+                return l_node;
+            }
+            l_parent = l_child;
+        }
+    }
+
+    /**
+     * rebuild the tree from the live nodes
+     */
+    private void rebuild()
+    {
+        final List<CNode<T>> l_live = new ArrayList<>();
+        m_nodes.values().stream().filter( i -> !i.m_values.isEmpty() ).forEach( l_live::add );
+
+        m_nodes.clear();
+        m_values.clear();
+        m_root = null;
+        m_empty = 0;
+
+        for ( final CNode<T> l_old : l_live )
+        {
+            final CNode<T> l_node = this.insert( l_old.m_committee );
+            l_node.m_values.addAll( l_old.m_values );
+            l_node.m_values.forEach( i -> m_values.put( i, l_node ) );
+        }
+    }
+
+    /**
+     * node of the tree
+     *
+     * @param <T> value type
+     */
+    private static final class CNode<T>
+    {
+        /**
+         * committee
+         */
+        private final CBallot m_committee;
+
+        /**
+         * values with this committee in insertion order
+         */
+        private final Set<T> m_values = new LinkedHashSet<>();
+
+        /**
+         * children by distance
+         */
+        private final Map<Integer, CNode<T>> m_children = new HashMap<>();
+
+        /**
+         * constructor
+         *
+         * @param p_committee committee
+         */
+        CNode( final CBallot p_committee )
+        {
+            m_committee = p_committee;
+        }
+    }
+}
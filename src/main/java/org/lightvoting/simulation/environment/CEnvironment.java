@@ -29,9 +29,11 @@ import org.lightjason.agentspeak.language.ILiteral;
 import org.lightvoting.simulation.agent.CChairAgent;
 import org.lightvoting.simulation.agent.CVotingAgent;
 
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -40,7 +42,15 @@ import java.util.List;
  */
 public final class CEnvironment
 {
-    private final List<CGroup> m_groups;
+    /**
+     * open groups, updated on every open and close transition
+     */
+    private final CGroupRegistry m_openGroups = new CGroupRegistry();
+
+    /**
+     * group of each chair, updated when a group is opened or archived
+     */
+    private final Map<CChairAgent, CGroup> m_chairGroups = new ConcurrentHashMap<>();
 
     private final List<CVotingAgent> m_agentList;
 
@@ -50,18 +60,68 @@ public final class CEnvironment
     private boolean m_firstActivated;
     private final String m_fileName;
 
+    /**
+     * maximal number of members of a group
+     */
+    private final int m_capacity;
+
+    /**
+     * records of archived groups
+     */
+    private final CGroupArchive m_archive;
+
+    /**
+     * source of the dense agent ids
+     */
+    private final AtomicInteger m_agentIds = new AtomicInteger();
+
+    /**
+     * source of the dense group ids
+     */
+    private final AtomicInteger m_groupIds = new AtomicInteger();
+
     /**
      * constructor
      * @param p_size number of agents
      * @param p_fileName HDF5 file
      */
     public CEnvironment( final int p_size, final String p_fileName )
+    {
+        this( p_size, p_fileName, CGroup.DEFAULTCAPACITY );
+    }
+
+    /**
+     * constructor
+     * @param p_size number of agents
+     * @param p_fileName HDF5 file
+     * @param p_capacity maximal number of members of a group
+     */
+    public CEnvironment( final int p_size, final String p_fileName, final int p_capacity )
     {
         m_fileName = p_fileName;
-        m_groups = Collections.synchronizedList( new LinkedList<>() );
+        m_capacity = p_capacity;
+        m_archive = new CGroupArchive( p_fileName );
         m_agentList = new LinkedList<>();
     }
 
+    /**
+     * return next agent id, agent ids are dense and start with 0 in every environment
+     * @return agent id
+     */
+    public int nextAgentId()
+    {
+        return m_agentIds.getAndIncrement();
+    }
+
+    /**
+     * return next group id, group ids are dense and start with 0 in every environment
+     * @return group id
+     */
+    public int nextGroupId()
+    {
+        return m_groupIds.getAndIncrement();
+    }
+
     /**
      * initialize groups
      *
@@ -84,13 +144,13 @@ public final class CEnvironment
     }
 
     /**
-     * returns literal representation of existing groups
+     * returns literal representation of the open groups
      * @param p_votingAgent voting agent
-     * @return literal with references to existing groups
+     * @return literal with reference to the registry of open groups
      */
     public ILiteral literal( final CVotingAgent p_votingAgent )
     {
-        return CLiteral.from( "groups", CRawTerm.from( m_groups ) );
+        return CLiteral.from( "groups", CRawTerm.from( m_openGroups ) );
     }
 
     /**
@@ -100,8 +160,11 @@ public final class CEnvironment
      */
     public CGroup openNewGroupRandom( final CVotingAgent p_votingAgent )
     {
-        final CGroup l_group = new CGroup( p_votingAgent, "RANDOM" );
-        m_groups.add( l_group );
+        final CGroup l_group = new CGroup( p_votingAgent, "RANDOM", m_capacity );
+        l_group.registry( m_openGroups );
+        if ( l_group.open() )
+            m_openGroups.add( l_group );
+        m_chairGroups.put( p_votingAgent.getChair(), l_group );
         System.out.println( "Created Group " + l_group );
         this.wakeUpAgent();
 
@@ -115,8 +178,11 @@ public final class CEnvironment
      */
     public CGroup openNewGroupCoordinated( final CVotingAgent p_votingAgent )
     {
-        final CGroup l_group = new CGroup( p_votingAgent, "COORDINATED" );
-        m_groups.add( l_group );
+        final CGroup l_group = new CGroup( p_votingAgent, "COORDINATED", m_capacity );
+        l_group.registry( m_openGroups );
+        if ( l_group.open() )
+            m_openGroups.add( l_group );
+        m_chairGroups.put( p_votingAgent.getChair(), l_group );
         System.out.println( "Created Group " + l_group );
 
         return l_group;
@@ -126,12 +192,17 @@ public final class CEnvironment
      * add agent to group (for random grouping)
      * @param p_randomGroup random group to join
      * @param p_votingAgent joining agent
+     * @return true if the agent joined, false if the group was closed in the meantime
      */
 
-    public void addAgentRandom( final CGroup p_randomGroup, final CVotingAgent p_votingAgent )
+    public boolean addAgentRandom( final CGroup p_randomGroup, final CVotingAgent p_votingAgent )
     {
-        p_randomGroup.addRandom( p_votingAgent );
-        this.wakeUpAgent();
+        final boolean l_joined = p_randomGroup.addRandom( p_votingAgent );
+        if ( !p_randomGroup.open() )
+            m_openGroups.remove( p_randomGroup );
+        if ( l_joined )
+            this.wakeUpAgent();
+        return l_joined;
     }
 
 
@@ -139,28 +210,55 @@ public final class CEnvironment
      * add agent to group (for coordinated grouping)
      * @param p_group group to join
      * @param p_votingAgent joining agent
+     * @return true if the agent joined, false if another agent joined first
      */
 
 
-    public void addAgentCoordinated( final CGroup p_group, final CVotingAgent p_votingAgent )
+    public boolean addAgentCoordinated( final CGroup p_group, final CVotingAgent p_votingAgent )
     {
-        p_group.addCoordinated( p_votingAgent );
+        if ( !p_group.addCoordinated( p_votingAgent ) )
+            return false;
+
+        m_openGroups.remove( p_group );
         this.wakeUpAgent();
+        return true;
     }
 
     /**
      * detect group of chair agent
      * @param p_chairAgent chair agent
-     * @return literal representation of group if chair is assigned to a group
+     * @return group of the chair or null if the chair is not assigned to a group
      */
-    public ILiteral detectGroup( final CChairAgent p_chairAgent )
+    public CGroup detectGroup( final CChairAgent p_chairAgent )
     {
-        for ( final CGroup l_group : m_groups )
-        {
-            if ( !( ( l_group.literal( p_chairAgent ) ) == null ) )
-                return l_group.literal( p_chairAgent );
-        }
-        return null;
+        return m_chairGroups.get( p_chairAgent );
+    }
+
+    /**
+     * archive a final group, its record is appended to the HDF5 file and the group is released,
+     * so the environment only refers to active groups
+     * @param p_group final group
+     * @return true if the group was archived
+     */
+    public boolean archive( final CGroup p_group )
+    {
+        final int[] l_record = p_group.archive();
+        if ( l_record == null )
+            return false;
+
+        m_openGroups.remove( p_group );
+        m_chairGroups.remove( p_group.chair(), p_group );
+        m_archive.add( l_record );
+        return true;
+    }
+
+    /**
+     * write the records of archived groups which are still buffered
+     * @return true if all records are written
+     */
+    public boolean flush()
+    {
+        return m_archive.flush();
     }
 
     // open group for further elections, unless the capacity is reached
@@ -172,7 +270,8 @@ public final class CEnvironment
      */
     public void reopen( final CGroup p_group )
     {
-        p_group.reopen();
+        if ( p_group.reopen() )
+            m_openGroups.add( p_group );
         this.wakeUpAgent();
     }
 
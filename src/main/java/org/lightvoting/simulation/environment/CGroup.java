@@ -23,36 +23,58 @@
 
 package org.lightvoting.simulation.environment;
 
-import cern.colt.bitvector.BitVector;
 import org.lightjason.agentspeak.language.CLiteral;
 import org.lightjason.agentspeak.language.CRawTerm;
 import org.lightjason.agentspeak.language.ILiteral;
-import org.lightjason.agentspeak.language.ITerm;
 import org.lightjason.agentspeak.language.instantiable.plan.trigger.CTrigger;
 import org.lightjason.agentspeak.language.instantiable.plan.trigger.ITrigger;
 import org.lightvoting.simulation.agent.CChairAgent;
 import org.lightvoting.simulation.agent.CVotingAgent;
+import org.lightvoting.simulation.rule.CBallot;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created by sophie on 24.04.17.
  */
 public class CGroup
 {
+    /**
+     * default number of members of a group
+     */
+    public static final int DEFAULTCAPACITY = 3;
+
+    /**
+     * group id, dense within the environment of the creating agent
+     */
+    private final int m_id;
+
     private final List<CVotingAgent> m_agentList;
 
-    private final int m_capacity = 3;
+    /**
+     * position of each member in the agent list by agent id
+     */
+    private final Map<Integer, Integer> m_positions;
+
+    private final int m_capacity;
 
     private final CChairAgent m_chair;
 
-    private boolean m_open;
+    /**
+     * lifecycle state, changed only by compare-and-set, members are changed under the monitor of the group
+     */
+    private final AtomicReference<EGroupState> m_state;
 
-    private BitVector m_result;
+    private volatile CBallot m_result;
 
-    private boolean m_readyForElection;
-    private boolean m_inProgress;
+    /**
+     * registry of open groups, which is notified when the result changes
+     */
+    private volatile CGroupRegistry m_registry;
 
     /**
      * constructor
@@ -61,16 +83,30 @@ public class CGroup
      */
     public CGroup( final CVotingAgent p_votingAgent, final String p_grouping )
     {
-        m_agentList = new LinkedList<>();
-        m_agentList.add( p_votingAgent );
+        this( p_votingAgent, p_grouping, DEFAULTCAPACITY );
+    }
+
+    /**
+     * constructor
+     * @param p_votingAgent voting agent creating the group
+     * @param p_grouping grouping algorithm
+     * @param p_capacity maximal number of members
+     */
+    public CGroup( final CVotingAgent p_votingAgent, final String p_grouping, final int p_capacity )
+    {
+        if ( p_capacity < 1 )
+            throw new IllegalArgumentException( "capacity must be positive" );
+
+        m_id = p_votingAgent.environment().nextGroupId();
+        m_capacity = p_capacity;
+        m_agentList = new ArrayList<>();
+        m_positions = new HashMap<>();
+        this.add( p_votingAgent );
         m_chair = p_votingAgent.getChair();
-        m_open = true;
         m_result = null;
-        if ( "RANDOM".equals( p_grouping ) )
-            m_readyForElection = false;
-        else
-            m_readyForElection = true;
-        m_inProgress = false;
+
+        // a coordinated group elects its first committee before voters can join
+        m_state = new AtomicReference<>( "RANDOM".equals( p_grouping ) && m_agentList.size() < m_capacity ? EGroupState.OPEN : EGroupState.FULL );
     }
 
     /**
@@ -82,7 +118,7 @@ public class CGroup
     public ILiteral literal( final CVotingAgent p_votingAgent )
     {
         return CLiteral.from( "group", CRawTerm.from( m_chair ), CRawTerm.from( this.open() ), CRawTerm.from( m_result ),
-                              CRawTerm.from( m_agentList.contains( p_votingAgent ) ) );
+                              CRawTerm.from( this.contains( p_votingAgent ) ) );
     }
 
     /**
@@ -92,69 +128,122 @@ public class CGroup
      */
     public ILiteral literal( final CChairAgent p_chairAgent )
     {
-        final List<ITerm> l_terms = new LinkedList<>();
-
-        for ( int i = 0; i < m_agentList.size(); i++ )
-            l_terms.add( CRawTerm.from( m_agentList.get( i ) ) );
-
-
         if ( ( this.m_chair ).equals( p_chairAgent ) )
             return CLiteral.from( "group", CRawTerm.from( this ) );
         else return null;
     }
 
+    /**
+     * return group id
+     * @return id
+     */
+    public final int id()
+    {
+        return m_id;
+    }
+
+    /**
+     * return chair of the group
+     * @return chair agent
+     */
+    public final CChairAgent chair()
+    {
+        return m_chair;
+    }
+
+    /**
+     * return lifecycle state
+     * @return state
+     */
+    public EGroupState state()
+    {
+        return m_state.get();
+    }
+
     public boolean readyForElection()
     {
-        return m_readyForElection;
+        return m_state.get() == EGroupState.FULL;
     }
 
     /**
-     * add voting agent (for random grouping)
+     * add voting agent (for random grouping), the group is full when the capacity is reached
      * @param p_votingAgent joining voting agent
+     * @return true if the agent joined, false if the group was not open anymore
      */
-    public void addRandom( final CVotingAgent p_votingAgent )
+    public synchronized boolean addRandom( final CVotingAgent p_votingAgent )
     {
+        if ( m_state.get() != EGroupState.OPEN || m_agentList.size() >= m_capacity )
+            return false;
+
         System.out.println( "Adding agent, old size is " + m_agentList.size() );
-        m_agentList.add( p_votingAgent );
+        this.add( p_votingAgent );
         if ( m_agentList.size() >= m_capacity )
-        {
-            m_open = false;
-            m_readyForElection = true;
-        }
+            m_state.compareAndSet( EGroupState.OPEN, EGroupState.FULL );
+        return true;
     }
 
     /**
-     * add voting agent (for coordinated grouping)
+     * add voting agent (for coordinated grouping), the group is full until the next result
      * @param p_votingAgent joining voting agent
+     * @return true if the agent joined, false if another agent joined first
      */
 
-    public void addCoordinated( final CVotingAgent p_votingAgent )
+    public synchronized boolean addCoordinated( final CVotingAgent p_votingAgent )
     {
+        if ( !m_state.compareAndSet( EGroupState.REOPENED, EGroupState.FULL ) )
+            return false;
 
         System.out.println( "Adding agent, old size is " + m_agentList.size() );
-        m_agentList.add( p_votingAgent );
-        m_open = false;
-        m_readyForElection = true;
+        this.add( p_votingAgent );
+        return true;
     }
 
-    public void remove( final CVotingAgent p_votingAgent )
+    /**
+     * remove voting agent, the last member takes its position
+     * @param p_votingAgent voting agent
+     */
+    public synchronized void remove( final CVotingAgent p_votingAgent )
     {
-        m_agentList.remove( p_votingAgent );
+        final Integer l_position = m_positions.remove( p_votingAgent.id() );
+        if ( l_position == null )
+            return;
+
+        final CVotingAgent l_last = m_agentList.remove( m_agentList.size() - 1 );
+        if ( l_last != p_votingAgent )
+        {
+            m_agentList.set( l_position, l_last );
+            m_positions.put( l_last.id(), l_position );
+        }
+    }
+
+    /**
+     * check membership of a voting agent
+     * @param p_votingAgent voting agent
+     * @return true if the agent is a member of the group
+     */
+    public synchronized boolean contains( final CVotingAgent p_votingAgent )
+    {
+        return m_positions.containsKey( p_votingAgent.id() );
     }
 
     public boolean open()
     {
-        return m_open;
+        final EGroupState l_state = m_state.get();
+        return l_state == EGroupState.OPEN || l_state == EGroupState.REOPENED;
     }
 
     public boolean electionInProgress()
     {
-        return m_inProgress;
+        return m_state.get() == EGroupState.VOTING;
     }
 
-    public void startProgress()
+    /**
+     * start election if the group is full, only one caller can start an election
+     * @return true if the election was started by the caller
+     */
+    public boolean startProgress()
     {
-        m_inProgress = true;
+        return m_state.compareAndSet( EGroupState.FULL, EGroupState.VOTING );
     }
 
     /**
@@ -163,7 +252,7 @@ public class CGroup
      */
     public void triggerAgents( final CChairAgent p_chairAgent )
     {
-        m_agentList.forEach( i ->
+        this.members().forEach( i ->
             i.trigger(
                 CTrigger.from(
                     ITrigger.EType.ADDGOAL,
@@ -179,7 +268,7 @@ public class CGroup
      * return size
      * @return size of agent list
      */
-    public int size()
+    public synchronized int size()
     {
         return m_agentList.size();
     }
@@ -191,10 +280,10 @@ public class CGroup
      * @return group literal for chair agent
      */
 
-    public ILiteral updateBasic( final CChairAgent p_chairAgent, final BitVector p_result )
+    public ILiteral updateBasic( final CChairAgent p_chairAgent, final CBallot p_result )
     {
         // send result of election to all agents in the group
-        m_agentList.stream().forEach( i ->
+        this.members().forEach( i ->
             i.trigger( CTrigger.from(
                 ITrigger.EType.ADDGOAL,
                 CLiteral.from( "election/result",
@@ -204,7 +293,7 @@ public class CGroup
             )
         );
 
-        m_result = p_result;
+        this.publish( p_result );
         return this.literal( p_chairAgent );
     }
 
@@ -216,10 +305,10 @@ public class CGroup
      * @return group literal for chair agent
      */
 
-    public ILiteral updateIterative( final CChairAgent p_chairAgent, final BitVector p_result, final int p_iteration )
+    public ILiteral updateIterative( final CChairAgent p_chairAgent, final CBallot p_result, final int p_iteration )
     {
         // send result of election to all agents in the group
-        m_agentList.stream().forEach( i ->
+        this.members().forEach( i ->
         {
             i.trigger( CTrigger.from(
                 ITrigger.EType.ADDGOAL,
@@ -232,29 +321,56 @@ public class CGroup
             System.out.println( "triggering agent " + i.name() );
         } );
 
-        m_result = p_result;
+        this.publish( p_result );
         return this.literal( p_chairAgent );
 
     }
 
     /**
-     * reset group
+     * set registry of open groups
+     * @param p_registry registry
      */
-    public void reset()
+    void registry( final CGroupRegistry p_registry )
     {
-        m_inProgress = false;
-        m_readyForElection = false;
+        m_registry = p_registry;
     }
 
     /**
-     * reopen group unless capacity is reached
+     * set result and update the committee index of the registry
+     * @param p_result election result
      */
-    public void reopen()
+    private void publish( final CBallot p_result )
     {
-        if ( m_agentList.size() < m_capacity )
-        {
-            m_open = true;
-        }
+        m_result = p_result;
+        if ( m_registry != null )
+            m_registry.update( this );
+    }
+
+    /**
+     * finish the running election, the result is published next
+     * @return true if an election was in progress
+     */
+    public boolean reset()
+    {
+        return m_state.compareAndSet( EGroupState.VOTING, EGroupState.RESULT );
+    }
+
+    /**
+     * reopen group after a result unless capacity is reached
+     * @return true if the group was reopened
+     */
+    public synchronized boolean reopen()
+    {
+        return m_agentList.size() < m_capacity && m_state.compareAndSet( EGroupState.RESULT, EGroupState.REOPENED );
+    }
+
+    /**
+     * mark group as final after a result, no further elections take place
+     * @return true if the group became final
+     */
+    public boolean finish()
+    {
+        return m_state.compareAndSet( EGroupState.RESULT, EGroupState.FINAL );
     }
 
     /**
@@ -262,32 +378,77 @@ public class CGroup
      * @return election result
      */
 
-    public BitVector result()
+    public CBallot result()
     {
         return m_result;
     }
 
 
-    public boolean finale()
+    public synchronized boolean finale()
     {
         return m_agentList.size() >= m_capacity;
     }
 
-    public void makeReady()
+    /**
+     * archive a final group, the members and the result are released
+     * @return record with group id, number of members and one value per alternative which is 1 if the
+     * alternative is in the committee, null if the group is not final
+     */
+    public synchronized int[] archive()
+    {
+        if ( !m_state.compareAndSet( EGroupState.FINAL, EGroupState.ARCHIVED ) )
+            return null;
+
+        final int l_alternatives = m_result == null ? 0 : m_result.size();
+        final int[] l_record = new int[l_alternatives + 2];
+        l_record[0] = m_id;
+        l_record[1] = m_agentList.size();
+        for ( int i = 0; i < l_alternatives; i++ )
+            l_record[i + 2] = m_result.get( i ) ? 1 : 0;
+
+        m_agentList.clear();
+        m_positions.clear();
+        m_result = null;
+        m_registry = null;
+        return l_record;
+    }
+
+    /**
+     * make group ready for the next iteration after a result
+     * @return true if the group is ready for the next election
+     */
+    public boolean makeReady()
+    {
+        return m_state.compareAndSet( EGroupState.RESULT, EGroupState.FULL );
+    }
+
+    /**
+     * determine agent for given id
+     * @param p_agentId agent id
+     * @return corresponding voting agent or null if the agent is not a member
+     */
+    public synchronized CVotingAgent determineAgent( final int p_agentId )
+    {
+        final Integer l_position = m_positions.get( p_agentId );
+        return l_position == null ? null : m_agentList.get( l_position );
+    }
+
+    /**
+     * return snapshot of the members, so agents can be triggered outside of the monitor
+     * @return members
+     */
+    private synchronized List<CVotingAgent> members()
     {
-        m_readyForElection = true;
+        return new ArrayList<>( m_agentList );
     }
 
     /**
-     * determine agent for given name
-     * @param p_agentName name
-     * @return corresponding voting agent
+     * add member
+     * @param p_votingAgent voting agent
      */
-    public CVotingAgent determineAgent( final String p_agentName )
+    private void add( final CVotingAgent p_votingAgent )
     {
-        for ( int i = 0; i < m_agentList.size(); i++ )
-            if ( p_agentName.equals( m_agentList.get( i ).name() ) )
-                return m_agentList.get( i );
-        return null;
+        if ( m_positions.putIfAbsent( p_votingAgent.id(), m_agentList.size() ) == null )
+            m_agentList.add( p_votingAgent );
     }
 }
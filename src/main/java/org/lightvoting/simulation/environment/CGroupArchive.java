@@ -0,0 +1,223 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import org.lightvoting.CDataWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * archive of the records of final groups. Records are buffered without locking and appended in
+ * blocks to one extensible dataset of the HDF5 file, one row per group. Full blocks are written by
+ * a single writer thread, so agents which archive a group never wait for the file.
+ */
+public final class CGroupArchive
+{
+    /**
+     * name of the dataset
+     */
+    public static final String DATASET = "Groups";
+
+    /**
+     * number of records which are appended at once, also the chunk size of the dataset
+     */
+    public static final int BLOCKSIZE = 1024;
+
+    /**
+     * HDF5 file
+     */
+    private final String m_fileName;
+
+    /**
+     * appends rows to the file
+     */
+    private final IAppender m_appender;
+
+    /**
+     * writer of full blocks
+     */
+    private final Executor m_writer;
+
+    /**
+     * flag whether a write of the buffered records is scheduled
+     */
+    private final AtomicBoolean m_scheduled = new AtomicBoolean();
+
+    /**
+     * buffered records
+     */
+    private final Queue<int[]> m_pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * number of buffered records
+     */
+    private final AtomicInteger m_count = new AtomicInteger();
+
+    /**
+     * number of values per record, fixed by the first record
+     */
+    private final AtomicInteger m_width = new AtomicInteger( -1 );
+
+    /**
+     * records which are taken from the buffer, but not written yet, because the last append failed
+     */
+    private final List<int[]> m_unwritten = new ArrayList<>();
+
+    /**
+     * number of written records
+     */
+    private long m_rows;
+
+    /**
+     * constructor
+     *
+     * @param p_fileName HDF5 file
+     */
+    public CGroupArchive( final String p_fileName )
+    {
+        this( p_fileName, CDataWriter::append, Executors.newSingleThreadExecutor( i ->
+        {
+            final Thread l_thread = new Thread( i, "group archive " + p_fileName );
+            l_thread.setDaemon( true );
+            return l_thread;
+        } ) );
+    }
+
+    /**
+     * constructor
+     *
+     * @param p_fileName HDF5 file
+     * @param p_appender appends rows to the file
+     * @param p_writer writer of full blocks
+     */
+    CGroupArchive( final String p_fileName, final IAppender p_appender, final Executor p_writer )
+    {
+        m_fileName = p_fileName;
+        m_appender = p_appender;
+        m_writer = p_writer;
+    }
+
+    /**
+     * add record, a full block is handed to the writer
+     *
+     * @param p_record record
+     */
+    public void add( final int[] p_record )
+    {
+        m_width.compareAndSet( -1, p_record.length );
+        if ( p_record.length != m_width.get() )
+            throw new IllegalArgumentException( "record has " + p_record.length + " values instead of " + m_width.get() );
+
+        m_pending.add( p_record );
+        if ( m_count.incrementAndGet() >= BLOCKSIZE && m_scheduled.compareAndSet( false, true ) )
+            m_writer.execute( this::write );
+    }
+
+    /**
+     * write the buffered records on the writer
+     */
+    private void write()
+    {
+        // reset the flag before writing, so that records which arrive later schedule the next write
+        m_scheduled.set( false );
+        this.flush();
+    }
+
+    /**
+     * append all buffered records to the file, records are kept until they are written
+     *
+     * @return true if all records which were buffered at the call are written
+     */
+    public synchronized boolean flush()
+    {
+        final int l_size = m_count.get();
+        for ( int i = 0; i < l_size; i++ )
+            m_unwritten.add( m_pending.poll() );
+        m_count.addAndGet( -l_size );
+
+        if ( m_unwritten.isEmpty() )
+            return true;
+
+        final int l_width = m_width.get();
+        final int[] l_rows = new int[m_unwritten.size() * l_width];
+        for ( int i = 0; i < m_unwritten.size(); i++ )
+            System.arraycopy( m_unwritten.get( i ), 0, l_rows, i * l_width, l_width );
+
+        // the dataset is created by the first successful append, so a failed first append is repeated at offset 0
+        if ( !m_appender.append( m_fileName, DATASET, l_rows, l_width, BLOCKSIZE, m_rows ) )
+            return false;
+
+        m_rows += m_unwritten.size();
+        m_unwritten.clear();
+        return true;
+    }
+
+    /**
+     * return number of written records
+     *
+     * @return number of rows of the dataset
+     */
+    public synchronized long rows()
+    {
+        return m_rows;
+    }
+
+    /**
+     * return number of buffered records
+     *
+     * @return number of records which are not written yet
+     */
+    public synchronized int pending()
+    {
+        return m_count.get() + m_unwritten.size();
+    }
+
+    /**
+     * appends rows to an extensible dataset
+     */
+    @FunctionalInterface
+    interface IAppender
+    {
+        /**
+         * append rows
+         *
+         * @param p_name name of h5 file
+         * @param p_dataset name of dataset
+         * @param p_rows rows in row-major order
+         * @param p_width number of values per row
+         * @param p_chunk number of rows per chunk
+         * @param p_offset number of rows which are already written
+         * @return true if the rows were written
+         */
+        boolean append( final String p_name, final String p_dataset, final int[] p_rows, final int p_width, final int p_chunk, final long p_offset );
+    }
+}
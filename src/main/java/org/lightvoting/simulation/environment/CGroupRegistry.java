@@ -0,0 +1,174 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import org.lightvoting.simulation.rule.CBallot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ * thread-safe registry of the open groups. The groups are kept in an array list together with their
+ * positions, so that groups are added and removed in constant time (a removed group is replaced by the
+ * last one) and a random group is sampled in constant time, independent of the number of closed groups.
+ * The current committees of the open groups are kept in a metric index, which is updated when a group
+ * publishes a new result, so that the nearest open group of a ballot is found without visiting all groups.
+ */
+public final class CGroupRegistry
+{
+    /**
+     * open groups
+     */
+    private final List<CGroup> m_groups = new ArrayList<>();
+
+    /**
+     * position of each open group
+     */
+    private final Map<CGroup, Integer> m_positions = new HashMap<>();
+
+    /**
+     * committees of the open groups which have a result
+     */
+    private final CCommitteeIndex<CGroup> m_committees = new CCommitteeIndex<>();
+
+    /**
+     * add group
+     *
+     * @param p_group group
+     * @return true if the group was not registered
+     */
+    public synchronized boolean add( final CGroup p_group )
+    {
+        if ( m_positions.putIfAbsent( p_group, m_groups.size() ) != null )
+            return false;
+
+        m_groups.add( p_group );
+        if ( p_group.result() != null )
+            m_committees.put( p_group, p_group.result() );
+        return true;
+    }
+
+    /**
+     * remove group
+     *
+     * @param p_group group
+     * @return true if the group was registered
+     */
+    public synchronized boolean remove( final CGroup p_group )
+    {
+        final Integer l_position = m_positions.remove( p_group );
+        if ( l_position == null )
+            return false;
+
+        m_committees.remove( p_group );
+
+        final CGroup l_last = m_groups.remove( m_groups.size() - 1 );
+        if ( l_last != p_group )
+        {
+            m_groups.set( l_position, l_last );
+            m_positions.put( l_last, l_position );
+        }
+        return true;
+    }
+
+    /**
+     * update the committee of a group
+     *
+     * @param p_group group
+     */
+    public synchronized void update( final CGroup p_group )
+    {
+        if ( !m_positions.containsKey( p_group ) )
+            return;
+
+        if ( p_group.result() == null )
+            m_committees.remove( p_group );
+        else
+            m_committees.put( p_group, p_group.result() );
+    }
+
+    /**
+     * return the open group whose committee is nearest to a ballot
+     *
+     * @param p_ballot ballot
+     * @param p_threshold maximal Hamming distance
+     * @return group or null if no open group has a committee within the threshold
+     */
+    public synchronized CGroup nearest( final CBallot p_ballot, final int p_threshold )
+    {
+        return m_committees.nearest( p_ballot, p_threshold );
+    }
+
+    /**
+     * check whether a group is registered
+     *
+     * @param p_group group
+     * @return true if the group is open
+     */
+    public synchronized boolean contains( final CGroup p_group )
+    {
+        return m_positions.containsKey( p_group );
+    }
+
+    /**
+     * return number of open groups
+     *
+     * @return number of open groups
+     */
+    public synchronized int size()
+    {
+        return m_groups.size();
+    }
+
+    /**
+     * sample an open group uniformly at random
+     *
+     * @param p_random random number generator
+     * @return group or null if no group is open
+     */
+    public synchronized CGroup random( final Random p_random )
+    {
+        return m_groups.isEmpty() ? null : m_groups.get( p_random.nextInt( m_groups.size() ) );
+    }
+
+    /**
+     * return copy of the open groups
+     *
+     * @return open groups
+     */
+    public synchronized List<CGroup> groups()
+    {
+        return new ArrayList<>( m_groups );
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return m_groups.size() + " open groups";
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+
+/**
+ * lifecycle state of a group, a group moves from OPEN to FULL when the capacity is reached, from FULL to VOTING
+ * when the chair starts the election and from VOTING to RESULT when the result is published. After a result,
+ * the group is REOPENED for further voters, FULL again for the next iteration or FINAL. A FINAL group is ARCHIVED
+ * once its record is written.
+ */
+public enum EGroupState
+{
+    /**
+     * group accepts voters, no election yet
+     */
+    OPEN,
+    /**
+     * group is closed for voters and ready for an election
+     */
+    FULL,
+    /**
+     * election is in progress
+     */
+    VOTING,
+    /**
+     * result of the election is published
+     */
+    RESULT,
+    /**
+     * group accepts voters after an election
+     */
+    REOPENED,
+    /**
+     * no further elections
+     */
+    FINAL,
+    /**
+     * record of the group is written, members and result are released
+     */
+    ARCHIVED
+}
@@ -0,0 +1,379 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import cern.colt.bitvector.BitVector;
+
+import java.util.List;
+
+
+/**
+ * Computes an approximate result of Minimax Approval for large numbers of alternatives, for which
+ * the exact rule is intractable. Completing any ballot to the closest committee of size k is a
+ * 3-approximation (Caragiannis, Kalaitzis and Markakis, 2010), so the best completion of several
+ * ballots and of the Minisum Approval committee is used as start of a swap local search. The result
+ * reports the achieved maximal Hamming distance and a lower bound of the optimum.
+ */
+public final class CApproximateMinimaxApproval implements IVotingRule
+{
+    /**
+     * number of ballots which are completed to start committees
+     */
+    private static final int SEEDS = 32;
+
+    /**
+     * maximal number of ballots which are compared pairwise for the lower bound
+     */
+    private static final int PAIRS = 4096;
+
+    /**
+     * Minisum Approval for the first start committee, the rule is stateless and shared
+     */
+    private final CMinisumApproval m_minisum = new CMinisumApproval();
+
+    @Override
+    public String name()
+    {
+        return "APPROXIMATEMINIMAX";
+    }
+
+    /**
+     * seeds and lower bound, the local search is assumed to need about m improving swaps
+     *
+     * @param p_ballots number of distinct ballots
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return estimated number of operations
+     */
+    @Override
+    public double cost( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        final double l_pairs = Math.min( PAIRS, p_ballots );
+        return ( SEEDS + 1.0 ) * p_ballots * p_altNum + l_pairs * l_pairs * CBallot.words( p_altNum )
+               + (double) p_altNum * p_comSize * ( p_altNum - p_comSize ) * p_ballots;
+    }
+
+    /**
+     * compute an approximate winning committee according to Minimax Approval
+     *
+     * @param p_alternatives available alternatives
+     * @param p_votes submitted votes
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    public BitVector applyRuleBV( final List<String> p_alternatives, final List<BitVector> p_votes, final int p_comSize )
+    {
+        return this.applyRuleResult( p_alternatives, new CProfile( CBallot.of( p_votes ) ), p_comSize ).committee().toBitVector();
+    }
+
+    /**
+     * compute an approximate winning committee according to Minimax Approval on a compressed profile
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    @Override
+    public CBallot applyRule( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        return this.applyRuleResult( p_alternatives, p_profile, p_comSize ).committee();
+    }
+
+    /**
+     * compute an approximate winning committee with its maximal Hamming distance and a lower bound of the optimum
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @return result
+     */
+    public CMinimaxResult applyRuleResult( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        final int l_altNum = p_alternatives.size();
+        if ( p_comSize < 0 || p_comSize > l_altNum )
+            throw new IllegalArgumentException( "committee size must be between 0 and the number of alternatives" );
+
+        final long[][] l_ballots = new long[p_profile.distinct()][];
+        for ( int i = 0; i < l_ballots.length; i++ )
+            l_ballots[i] = words( p_profile.ballot( i ), l_altNum );
+
+        // word j of all ballots is stored contiguously, so distances to a committee are computed column by column
+        final long[][] l_columns = CHammingKernel.transpose( l_ballots, CBallot.words( l_altNum ) );
+        final int[] l_distances = new int[l_ballots.length];
+
+        /* start with the best of the Minisum Approval committee and the completed ballots */
+
+        long[] l_committee = words( m_minisum.applyRule( p_alternatives, p_profile, p_comSize ), l_altNum );
+        int l_maxHD = maxHD( l_columns, l_committee, l_distances );
+
+        for ( int i = 0; i < Math.min( SEEDS, l_ballots.length ); i++ )
+        {
+            final long[] l_completion = complete( l_ballots[i], l_altNum, p_comSize );
+            final int l_completionHD = maxHD( l_columns, l_completion, l_distances );
+            if ( l_completionHD < l_maxHD )
+            {
+                l_committee = l_completion;
+                l_maxHD = l_completionHD;
+            }
+        }
+
+        final int l_lowerBound = lowerBound( l_ballots, p_comSize );
+        CHammingKernel.distances( l_columns, l_ballots.length, l_committee, l_distances );
+        l_maxHD = this.localSearch( l_ballots, l_committee, l_altNum, l_lowerBound, l_distances );
+
+        return new CMinimaxResult( CBallot.wrap( l_committee, l_altNum ), l_maxHD, l_lowerBound );
+    }
+
+    /**
+     * improve the committee by swapping one chosen and one unchosen alternative, as long as the
+     * maximal Hamming distance or the number of ballots at the maximal distance decreases
+     *
+     * @param p_ballots distinct ballots as words
+     * @param p_committee committee as words, is modified
+     * @param p_altNum number of alternatives
+     * @param p_lowerBound lower bound of the optimum
+     * @param p_distances Hamming distances of the committee to the ballots, are updated
+     * @return maximal Hamming distance of the committee
+     */
+    private int localSearch( final long[][] p_ballots, final long[] p_committee, final int p_altNum, final int p_lowerBound, final int[] p_distances )
+    {
+        int l_maxHD = max( p_distances );
+        int l_atMax = count( p_distances, l_maxHD );
+
+        for ( int l_step = 0; l_step < p_altNum * p_altNum && l_maxHD > p_lowerBound; l_step++ )
+        {
+            int l_bestOut = -1;
+            int l_bestIn = -1;
+            int l_bestMax = l_maxHD;
+            int l_bestAtMax = l_atMax;
+
+            for ( int l_out = 0; l_out < p_altNum; l_out++ )
+            {
+                if ( !get( p_committee, l_out ) )
+                    continue;
+
+                for ( int l_in = 0; l_in < p_altNum; l_in++ )
+                {
+                    if ( get( p_committee, l_in ) )
+                        continue;
+
+                    // removing an approved alternative or adding a disapproved one increases the distance
+                    int l_swapMax = -1;
+                    int l_swapAtMax = 0;
+                    for ( int i = 0; i < p_ballots.length && l_swapMax <= l_bestMax; i++ )
+                    {
+                        final int l_distance = p_distances[i]
+                                               + ( get( p_ballots[i], l_out ) ? 1 : -1 )
+                                               + ( get( p_ballots[i], l_in ) ? -1 : 1 );
+                        if ( l_distance > l_swapMax )
+                        {
+                            l_swapMax = l_distance;
+                            l_swapAtMax = 1;
+                        }
+                        else if ( l_distance == l_swapMax )
+                            l_swapAtMax++;
+                    }
+
+                    if ( l_swapMax < l_bestMax || l_swapMax == l_bestMax && l_swapAtMax < l_bestAtMax )
+                    {
+                        l_bestOut = l_out;
+                        l_bestIn = l_in;
+                        l_bestMax = l_swapMax;
+                        l_bestAtMax = l_swapAtMax;
+                    }
+                }
+            }
+
+            if ( l_bestOut < 0 )
+                break;
+
+            p_committee[l_bestOut >>> 6] &= ~( 1L << l_bestOut );
+            p_committee[l_bestIn >>> 6] |= 1L << l_bestIn;
+            for ( int i = 0; i < p_ballots.length; i++ )
+                p_distances[i] += ( get( p_ballots[i], l_bestOut ) ? 1 : -1 ) + ( get( p_ballots[i], l_bestIn ) ? -1 : 1 );
+
+            l_maxHD = l_bestMax;
+            l_atMax = l_bestAtMax;
+        }
+
+        return l_maxHD;
+    }
+
+    /**
+     * lower bound of the optimal maximal Hamming distance. A committee of size k has at least the distance
+     * ||v| - k| to a ballot v, and for two ballots u, v one of them has at least the distance d(u, v) / 2.
+     *
+     * @param p_ballots distinct ballots as words
+     * @param p_comSize committee size
+     * @return lower bound
+     */
+    static int lowerBound( final long[][] p_ballots, final int p_comSize )
+    {
+        int l_bound = 0;
+
+        for ( int i = 0; i < p_ballots.length; i++ )
+            l_bound = Math.max( l_bound, Math.abs( cardinality( p_ballots[i] ) - p_comSize ) );
+
+        final int l_pairs = Math.min( PAIRS, p_ballots.length );
+        for ( int i = 0; i < l_pairs; i++ )
+            for ( int j = i + 1; j < l_pairs; j++ )
+                l_bound = Math.max( l_bound, ( distance( p_ballots[i], p_ballots[j] ) + 1 ) / 2 );
+
+        return l_bound;
+    }
+
+    /**
+     * closest committee of size k to a ballot, approved alternatives with lower indices are kept
+     * first and missing alternatives are filled up with the lowest indices
+     *
+     * @param p_ballot ballot as words
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee as words
+     */
+    private static long[] complete( final long[] p_ballot, final int p_altNum, final int p_comSize )
+    {
+        final long[] l_committee = new long[p_ballot.length];
+        int l_size = 0;
+
+        for ( int i = 0; i < p_altNum && l_size < p_comSize; i++ )
+            if ( get( p_ballot, i ) )
+            {
+                l_committee[i >>> 6] |= 1L << i;
+                l_size++;
+            }
+
+        for ( int i = 0; i < p_altNum && l_size < p_comSize; i++ )
+            if ( !get( l_committee, i ) )
+            {
+                l_committee[i >>> 6] |= 1L << i;
+                l_size++;
+            }
+
+        return l_committee;
+    }
+
+    /**
+     * copy ballot into words, bits beyond the alternatives are dropped
+     *
+     * @param p_ballot ballot
+     * @param p_altNum number of alternatives
+     * @return words
+     */
+    private static long[] words( final CBallot p_ballot, final int p_altNum )
+    {
+        final long[] l_words = new long[CBallot.words( p_altNum )];
+        for ( int i = 0; i < Math.min( l_words.length, p_ballot.words() ); i++ )
+            l_words[i] = p_ballot.word( i );
+        if ( ( p_altNum & 63 ) != 0 )
+            l_words[l_words.length - 1] &= ( 1L << p_altNum ) - 1;
+        return l_words;
+    }
+
+    /**
+     * check if an alternative is set
+     *
+     * @param p_words words
+     * @param p_index index of alternative
+     * @return true if set
+     */
+    private static boolean get( final long[] p_words, final int p_index )
+    {
+        return ( p_words[p_index >>> 6] & 1L << p_index ) != 0;
+    }
+
+    /**
+     * number of set alternatives
+     *
+     * @param p_words words
+     * @return cardinality
+     */
+    private static int cardinality( final long[] p_words )
+    {
+        int l_cardinality = 0;
+        for ( int i = 0; i < p_words.length; i++ )
+            l_cardinality += Long.bitCount( p_words[i] );
+        return l_cardinality;
+    }
+
+    /**
+     * Hamming distance between two word arrays of equal length
+     *
+     * @param p_first first words
+     * @param p_second second words
+     * @return Hamming distance
+     */
+    private static int distance( final long[] p_first, final long[] p_second )
+    {
+        int l_distance = 0;
+        for ( int i = 0; i < p_first.length; i++ )
+            l_distance += Long.bitCount( p_first[i] ^ p_second[i] );
+        return l_distance;
+    }
+
+    /**
+     * maximal Hamming distance of a committee to the ballots
+     *
+     * @param p_columns transposed ballots
+     * @param p_committee committee as words
+     * @param p_distances Hamming distance of each ballot, is overwritten
+     * @return maximal Hamming distance, -1 without ballots
+     */
+    private static int maxHD( final long[][] p_columns, final long[] p_committee, final int[] p_distances )
+    {
+        CHammingKernel.distances( p_columns, p_distances.length, p_committee, p_distances );
+        return max( p_distances );
+    }
+
+    /**
+     * maximum of values
+     *
+     * @param p_values values
+     * @return maximum, -1 if empty
+     */
+    private static int max( final int[] p_values )
+    {
+        int l_max = -1;
+        for ( int i = 0; i < p_values.length; i++ )
+            l_max = Math.max( l_max, p_values[i] );
+        return l_max;
+    }
+
+    /**
+     * number of occurrences of a value
+     *
+     * @param p_values values
+     * @param p_value value
+     * @return count
+     */
+    private static int count( final int[] p_values, final int p_value )
+    {
+        int l_count = 0;
+        for ( int i = 0; i < p_values.length; i++ )
+            if ( p_values[i] == p_value )
+                l_count++;
+        return l_count;
+    }
+}
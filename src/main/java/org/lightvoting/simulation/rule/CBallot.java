@@ -0,0 +1,284 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import cern.colt.bitvector.BitVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * immutable approval ballot or committee over a fixed number of alternatives, bit i is set if
+ * alternative i is approved. The bits are stored in words, so distances are computed without
+ * allocation, and the hash is cached, so ballots can be used as keys of profiles.
+ */
+public final class CBallot
+{
+    /**
+     * bits of the approved alternatives, bits beyond the size are zero
+     */
+    private final long[] m_words;
+
+    /**
+     * number of alternatives
+     */
+    private final int m_size;
+
+    /**
+     * cached hash
+     */
+    private final int m_hash;
+
+    /**
+     * constructor
+     *
+     * @param p_words words, which are owned by the ballot
+     * @param p_size number of alternatives
+     */
+    private CBallot( final long[] p_words, final int p_size )
+    {
+        if ( ( p_size & 63 ) != 0 )
+            p_words[p_words.length - 1] &= ( 1L << p_size ) - 1;
+
+        m_words = p_words;
+        m_size = p_size;
+        m_hash = 31 * Arrays.hashCode( p_words ) + p_size;
+    }
+
+    /**
+     * create ballot from a bit vector
+     *
+     * @param p_vector bit vector
+     * @return ballot
+     */
+    public static CBallot of( final BitVector p_vector )
+    {
+        return new CBallot( Arrays.copyOf( p_vector.elements(), words( p_vector.size() ) ), p_vector.size() );
+    }
+
+    /**
+     * create ballots from bit vectors
+     *
+     * @param p_vectors bit vectors
+     * @return ballots
+     */
+    public static List<CBallot> of( final Collection<BitVector> p_vectors )
+    {
+        final List<CBallot> l_ballots = new ArrayList<>( p_vectors.size() );
+        p_vectors.forEach( i -> l_ballots.add( CBallot.of( i ) ) );
+        return l_ballots;
+    }
+
+    /**
+     * create ballot from a mask
+     *
+     * @param p_mask mask, bit i is set if alternative i is approved
+     * @param p_size number of alternatives, at most 64
+     * @return ballot
+     */
+    public static CBallot of( final long p_mask, final int p_size )
+    {
+        if ( p_size > Long.SIZE )
+            throw new IllegalArgumentException( "a mask holds at most " + Long.SIZE + " alternatives" );
+        return new CBallot( p_size == 0 ? new long[0] : new long[]{p_mask}, p_size );
+    }
+
+    /**
+     * create ballot from words
+     *
+     * @param p_words words, bit i of word j is alternative 64 * j + i
+     * @param p_size number of alternatives
+     * @return ballot
+     */
+    public static CBallot of( final long[] p_words, final int p_size )
+    {
+        return new CBallot( Arrays.copyOf( p_words, words( p_size ) ), p_size );
+    }
+
+    /**
+     * create ballot which takes over the words without copying them
+     *
+     * @param p_words words with the length for the number of alternatives
+     * @param p_size number of alternatives
+     * @return ballot
+     */
+    static CBallot wrap( final long[] p_words, final int p_size )
+    {
+        return new CBallot( p_words, p_size );
+    }
+
+    /**
+     * number of words for a number of alternatives
+     *
+     * @param p_size number of alternatives
+     * @return number of words
+     */
+    static int words( final int p_size )
+    {
+        return ( p_size + 63 ) >>> 6;
+    }
+
+    /**
+     * return number of alternatives
+     *
+     * @return number of alternatives
+     */
+    public int size()
+    {
+        return m_size;
+    }
+
+    /**
+     * check if an alternative is approved
+     *
+     * @param p_alternative index of alternative
+     * @return true if approved
+     */
+    public boolean get( final int p_alternative )
+    {
+        return ( m_words[p_alternative >>> 6] & 1L << p_alternative ) != 0;
+    }
+
+    /**
+     * return number of approved alternatives
+     *
+     * @return cardinality
+     */
+    public int cardinality()
+    {
+        int l_cardinality = 0;
+        for ( int i = 0; i < m_words.length; i++ )
+            l_cardinality += Long.bitCount( m_words[i] );
+        return l_cardinality;
+    }
+
+    /**
+     * return number of words
+     *
+     * @return number of words
+     */
+    public int words()
+    {
+        return m_words.length;
+    }
+
+    /**
+     * return word
+     *
+     * @param p_index index of word
+     * @return bits of the alternatives 64 * index to 64 * index + 63
+     */
+    public long word( final int p_index )
+    {
+        return m_words[p_index];
+    }
+
+    /**
+     * return the first word as mask
+     *
+     * @return bits of the alternatives 0 to 63
+     */
+    public long mask()
+    {
+        return m_words.length == 0 ? 0 : m_words[0];
+    }
+
+    /**
+     * Hamming distance, i.e. the number of alternatives which are approved by exactly one of the ballots
+     *
+     * @param p_ballot other ballot
+     * @return Hamming distance
+     */
+    public int hammingDistance( final CBallot p_ballot )
+    {
+        final long[] l_shorter = m_words.length <= p_ballot.m_words.length ? m_words : p_ballot.m_words;
+        final long[] l_longer = l_shorter == m_words ? p_ballot.m_words : m_words;
+
+        int l_distance = 0;
+        for ( int i = 0; i < l_shorter.length; i++ )
+            l_distance += Long.bitCount( l_shorter[i] ^ l_longer[i] );
+        for ( int i = l_shorter.length; i < l_longer.length; i++ )
+            l_distance += Long.bitCount( l_longer[i] );
+        return l_distance;
+    }
+
+    /**
+     * number of alternatives which are approved by both ballots
+     *
+     * @param p_ballot other ballot
+     * @return size of the intersection
+     */
+    public int intersectCount( final CBallot p_ballot )
+    {
+        final int l_length = Math.min( m_words.length, p_ballot.m_words.length );
+
+        int l_count = 0;
+        for ( int i = 0; i < l_length; i++ )
+            l_count += Long.bitCount( m_words[i] & p_ballot.m_words[i] );
+        return l_count;
+    }
+
+    /**
+     * convert into a bit vector
+     *
+     * @return new bit vector
+     */
+    public BitVector toBitVector()
+    {
+        final BitVector l_vector = new BitVector( m_size );
+        System.arraycopy( m_words, 0, l_vector.elements(), 0, m_words.length );
+        return l_vector;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return m_hash;
+    }
+
+    @Override
+    public boolean equals( final Object p_object )
+    {
+        if ( this == p_object )
+            return true;
+        if ( !( p_object instanceof CBallot ) )
+            return false;
+
+        final CBallot l_ballot = (CBallot) p_object;
+        return m_hash == l_ballot.m_hash && m_size == l_ballot.m_size && Arrays.equals( m_words, l_ballot.m_words );
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder l_builder = new StringBuilder( "{" );
+        for ( int i = 0; i < m_size; i++ )
+            if ( this.get( i ) )
+                l_builder.append( l_builder.length() == 1 ? "" : ", " ).append( i );
+        return l_builder.append( "}" ).toString();
+    }
+}
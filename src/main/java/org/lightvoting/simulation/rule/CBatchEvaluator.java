@@ -0,0 +1,304 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * batched evaluation of the elections of many groups. Chairs submit their profiles and receive the
+ * committees asynchronously. All requests which are pending when a worker becomes free are drained
+ * as one batch, the batch is bucketed by rule, number of alternatives and committee size, so that
+ * every bucket is evaluated against the same committee space, distance table and per-thread buffers.
+ * Within a bucket, profiles with the same fingerprint are evaluated next to each other, so that the
+ * shared result cache returns the committee of identical profiles without recomputation. The
+ * buckets are split into one chunk per worker and evaluated on a shared fork/join pool.
+ */
+public final class CBatchEvaluator
+{
+    /**
+     * evaluator shared by all chairs
+     */
+    public static final CBatchEvaluator SHARED = new CBatchEvaluator( Runtime.getRuntime().availableProcessors() );
+
+    /**
+     * worker pool
+     */
+    private final ForkJoinPool m_pool;
+
+    /**
+     * result cache
+     */
+    private final CResultCache m_cache;
+
+    /**
+     * pending requests
+     */
+    private final Queue<CRequest> m_pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * flag whether a drain of the pending requests is scheduled
+     */
+    private final AtomicBoolean m_scheduled = new AtomicBoolean();
+
+    /**
+     * number of evaluated batches
+     */
+    private final AtomicLong m_batches = new AtomicLong();
+
+    /**
+     * number of evaluated requests
+     */
+    private final AtomicLong m_requests = new AtomicLong();
+
+    /**
+     * constructor with the shared result cache
+     *
+     * @param p_parallelism number of workers
+     */
+    public CBatchEvaluator( final int p_parallelism )
+    {
+        this( p_parallelism, CResultCache.SHARED );
+    }
+
+    /**
+     * constructor
+     *
+     * @param p_parallelism number of workers
+     * @param p_cache result cache
+     */
+    public CBatchEvaluator( final int p_parallelism, final CResultCache p_cache )
+    {
+        m_pool = new ForkJoinPool( Math.max( 1, p_parallelism ) );
+        m_cache = p_cache;
+    }
+
+    /**
+     * submit an election, the profile is copied, so that it can be changed after the submission
+     *
+     * @param p_rule voting rule
+     * @param p_alternatives available alternatives
+     * @param p_profile profile
+     * @param p_comSize committee size
+     * @return future of the elected committee
+     */
+    public CompletableFuture<CBallot> submit( final IVotingRule p_rule, final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        final CRequest l_request = new CRequest( p_rule, p_alternatives, p_profile, p_comSize );
+        m_pending.add( l_request );
+
+        if ( m_scheduled.compareAndSet( false, true ) )
+            m_pool.execute( this::drain );
+
+        return l_request.m_result;
+    }
+
+    /**
+     * submit the elections of many groups
+     *
+     * @param p_rule voting rule
+     * @param p_alternatives available alternatives
+     * @param p_profiles profiles
+     * @param p_comSize committee size
+     * @return futures of the elected committees in the order of the profiles
+     */
+    public List<CompletableFuture<CBallot>> submitAll( final IVotingRule p_rule, final List<String> p_alternatives, final Collection<CProfile> p_profiles,
+                                                       final int p_comSize )
+    {
+        final List<CompletableFuture<CBallot>> l_results = new ArrayList<>( p_profiles.size() );
+        p_profiles.forEach( i -> l_results.add( this.submit( p_rule, p_alternatives, i, p_comSize ) ) );
+        return l_results;
+    }
+
+    /**
+     * return number of evaluated batches
+     *
+     * @return number of batches
+     */
+    public long batches()
+    {
+        return m_batches.get();
+    }
+
+    /**
+     * return number of evaluated requests
+     *
+     * @return number of requests
+     */
+    public long requests()
+    {
+        return m_requests.get();
+    }
+
+    /**
+     * evaluate all pending requests as one batch
+     */
+    private void drain()
+    {
+        // reset the flag before polling, so that requests which arrive later schedule the next batch
+        m_scheduled.set( false );
+
+        final Map<String, List<CRequest>> l_buckets = new HashMap<>();
+        for ( CRequest l_request = m_pending.poll(); l_request != null; l_request = m_pending.poll() )
+            l_buckets.computeIfAbsent( l_request.bucket(), i -> new ArrayList<>() ).add( l_request );
+
+        if ( l_buckets.isEmpty() )
+            return;
+
+        m_batches.incrementAndGet();
+
+        final List<ForkJoinTask<?>> l_tasks = new ArrayList<>();
+        for ( final List<CRequest> l_bucket : l_buckets.values() )
+        {
+            l_bucket.sort( Comparator.comparingInt( i -> i.m_hash ) );
+
+            final int l_chunks = Math.min( m_pool.getParallelism(), l_bucket.size() );
+            for ( int i = 0; i < l_chunks; i++ )
+            {
+                final List<CRequest> l_chunk = l_bucket.subList( i * l_bucket.size() / l_chunks, ( i + 1 ) * l_bucket.size() / l_chunks );
+                l_tasks.add( ForkJoinTask.adapt( () -> this.evaluate( l_chunk ) ) );
+            }
+        }
+
+        ForkJoinTask.invokeAll( l_tasks );
+    }
+
+    /**
+     * evaluate requests of the same bucket
+     *
+     * @param p_requests requests
+     */
+    private void evaluate( final List<CRequest> p_requests )
+    {
+        for ( final CRequest l_request : p_requests )
+        {
+            try
+            {
+                l_request.m_result.complete(
+                    m_cache.get( l_request.m_rule.name(), l_request.m_fingerprint, l_request.m_alternatives.size(), l_request.m_comSize,
+                                 () -> l_request.m_rule.applyRule( l_request.m_alternatives, l_request.m_profile, l_request.m_comSize ) )
+                );
+            }
+            catch ( final RuntimeException l_exception )
+            {
+                l_request.m_result.completeExceptionally( l_exception );
+            }
+            m_requests.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return m_requests.get() + " elections in " + m_batches.get() + " batches on " + m_pool.getParallelism() + " workers";
+    }
+
+    /**
+     * pending election
+     */
+    private static final class CRequest
+    {
+        /**
+         * selected rule
+         */
+        private final IVotingRule m_rule;
+
+        /**
+         * alternatives
+         */
+        private final List<String> m_alternatives;
+
+        /**
+         * copy of the profile
+         */
+        private final CProfile m_profile;
+
+        /**
+         * committee size
+         */
+        private final int m_comSize;
+
+        /**
+         * canonical fingerprint of the profile
+         */
+        private final long[] m_fingerprint;
+
+        /**
+         * hash of the fingerprint of the profile
+         */
+        private final int m_hash;
+
+        /**
+         * future result
+         */
+        private final CompletableFuture<CBallot> m_result = new CompletableFuture<>();
+
+        /**
+         * constructor
+         *
+         * @param p_rule voting rule
+         * @param p_alternatives alternatives
+         * @param p_profile profile
+         * @param p_comSize committee size
+         */
+        CRequest( final IVotingRule p_rule, final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+        {
+            m_profile = new CProfile();
+            synchronized ( p_profile )
+            {
+                for ( int i = 0; i < p_profile.distinct(); i++ )
+                    m_profile.add( p_profile.ballot( i ), p_profile.count( i ) );
+            }
+
+            m_rule = p_rule.select( m_profile.distinct(), p_alternatives.size(), p_comSize );
+            m_alternatives = p_alternatives;
+            m_comSize = p_comSize;
+            m_fingerprint = m_profile.fingerprint();
+            m_hash = Arrays.hashCode( m_fingerprint );
+        }
+
+        /**
+         * return bucket of requests which share the committee space
+         *
+         * @return bucket key
+         */
+        String bucket()
+        {
+            return m_rule.name() + "/" + m_alternatives.size() + "/" + m_comSize;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+
+/**
+ * bit-sliced approval tally for large profiles. Blocks of 64 ballots are transposed into one word per
+ * alternative, whose bits are the approvals of the 64 ballots, so a single popcount counts 64 ballots.
+ * Weights are split into their binary digits, for every digit the columns are masked with the ballots
+ * having this digit set. The transposition of a 64x64 bit block takes 6 rounds of 32 word operations.
+ */
+public final class CBitSlicedTally
+{
+    /**
+     * minimal number of distinct ballots for which the bit-sliced tally pays back the transposition
+     */
+    public static final int MINBALLOTS = 64;
+
+    /**
+     * number of ballots in a block
+     */
+    private static final int BLOCKSIZE = Long.SIZE;
+
+    /**
+     * constructor
+     */
+    private CBitSlicedTally()
+    {
+    }
+
+    /**
+     * add weighted approval scores of the distinct ballots of a profile
+     *
+     * @param p_profile profile
+     * @param p_altNum number of alternatives
+     * @param p_scores score vector
+     */
+    public static void tally( final CProfile p_profile, final int p_altNum, final int[] p_scores )
+    {
+        final CBallot[] l_ballots = new CBallot[BLOCKSIZE];
+        final int[] l_counts = new int[BLOCKSIZE];
+        final long[] l_block = new long[BLOCKSIZE];
+        final long[] l_weights = new long[Integer.SIZE];
+        final int l_distinct = p_profile.distinct();
+
+        for ( int l_from = 0; l_from < l_distinct; l_from += BLOCKSIZE )
+        {
+            final int l_length = Math.min( BLOCKSIZE, l_distinct - l_from );
+
+            int l_digits = 0;
+            for ( int i = 0; i < l_length; i++ )
+            {
+                l_ballots[i] = p_profile.ballot( l_from + i );
+                l_counts[i] = p_profile.count( l_from + i );
+                l_digits |= l_counts[i];
+            }
+
+            // bit i of weight mask b is set if ballot i of the block has a count with binary digit b
+            final int l_bits = Integer.SIZE - Integer.numberOfLeadingZeros( l_digits );
+            for ( int b = 0; b < l_bits; b++ )
+            {
+                l_weights[b] = 0;
+                for ( int i = 0; i < l_length; i++ )
+                    l_weights[b] |= (long) ( l_counts[i] >>> b & 1 ) << i;
+            }
+
+            for ( int j = 0; j < CBallot.words( p_altNum ); j++ )
+            {
+                for ( int i = 0; i < BLOCKSIZE; i++ )
+                    l_block[i] = i < l_length && j < l_ballots[i].words() ? l_ballots[i].word( j ) : 0;
+
+                transpose( l_block );
+
+                final int l_columns = Math.min( Long.SIZE, p_altNum - ( j << 6 ) );
+                for ( int a = 0; a < l_columns; a++ )
+                {
+                    final long l_column = l_block[a];
+                    if ( l_column == 0 )
+                        continue;
+
+                    int l_score = 0;
+                    for ( int b = 0; b < l_bits; b++ )
+                        l_score += Long.bitCount( l_column & l_weights[b] ) << b;
+                    p_scores[( j << 6 ) + a] += l_score;
+                }
+            }
+        }
+    }
+
+    /**
+     * transpose 64x64 bit matrix in place, bit k of word i becomes bit i of word k
+     *
+     * @param p_matrix rows of the matrix
+     */
+    static void transpose( final long[] p_matrix )
+    {
+        long l_mask = 0x00000000FFFFFFFFL;
+
+        for ( int j = 32; j != 0; j >>>= 1, l_mask ^= l_mask << j )
+            for ( int k = 0; k < Long.SIZE; k = ( ( k | j ) + 1 ) & ~j )
+            {
+                final long l_swap = ( ( p_matrix[k] >>> j ) ^ p_matrix[k | j] ) & l_mask;
+                p_matrix[k] ^= l_swap << j;
+                p_matrix[k | j] ^= l_swap;
+            }
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import org.lightvoting.simulation.combinations.CCommitteeEnumerator;
+import org.lightvoting.simulation.combinations.CCommitteeSpace;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * precomputed Hamming distances from every ballot to every committee of size k for small numbers
+ * of alternatives. Tables are built lazily once per (m, k) and shared by all rules and threads.
+ * The reductions over a profile run row by row over the table, which the JIT can vectorise.
+ */
+public final class CDistanceTable
+{
+    /**
+     * maximal number of alternatives for which tables are built
+     */
+    public static final int MAXALTERNATIVES = 16;
+
+    /**
+     * maximal number of entries (bytes) of a single table
+     */
+    public static final long MAXENTRIES = 1 << 24;
+
+    /**
+     * shared tables, key is computed from the number of alternatives and the committee size
+     */
+    private static final Map<Integer, CDistanceTable> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * committees as masks in colexicographic order, shared with the committee space
+     */
+    private final long[] m_committees;
+
+    /**
+     * distances, one row of all committees per ballot
+     */
+    private final byte[] m_distances;
+
+    /**
+     * constructor
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    private CDistanceTable( final int p_altNum, final int p_comSize )
+    {
+        m_altNum = p_altNum;
+        m_committees = CCommitteeSpace.of( p_altNum, p_comSize ).committees();
+
+        m_distances = new byte[( 1 << p_altNum ) * m_committees.length];
+        for ( int i = 0; i < 1 << p_altNum; i++ )
+            for ( int j = 0; j < m_committees.length; j++ )
+                m_distances[i * m_committees.length + j] = (byte) Long.bitCount( i ^ m_committees[j] );
+    }
+
+    /**
+     * return shared table
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return table or null if the table would be too large
+     */
+    public static CDistanceTable of( final int p_altNum, final int p_comSize )
+    {
+        return CDistanceTable.fits( p_altNum, p_comSize )
+               ? TABLES.computeIfAbsent( p_altNum * ( MAXALTERNATIVES + 1 ) + p_comSize, i -> new CDistanceTable( p_altNum, p_comSize ) )
+               : null;
+    }
+
+    /**
+     * check from the size alone whether a table is used, without building it
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return flag whether the table is small enough
+     */
+    public static boolean fits( final int p_altNum, final int p_comSize )
+    {
+        return p_altNum <= MAXALTERNATIVES && p_comSize >= 0 && p_comSize <= p_altNum
+               && ( 1L << p_altNum ) * CCommitteeEnumerator.binomial( p_altNum, p_comSize ) <= MAXENTRIES;
+    }
+
+    /**
+     * return number of committees
+     *
+     * @return number of committees
+     */
+    public int size()
+    {
+        return m_committees.length;
+    }
+
+    /**
+     * return committee
+     *
+     * @param p_index index of committee
+     * @return committee mask
+     */
+    public long committee( final int p_index )
+    {
+        return m_committees[p_index];
+    }
+
+    /**
+     * return Hamming distance
+     *
+     * @param p_ballot ballot mask
+     * @param p_index index of committee
+     * @return Hamming distance
+     */
+    public int distance( final long p_ballot, final int p_index )
+    {
+        return m_distances[this.row( p_ballot ) + p_index];
+    }
+
+    /**
+     * maximal Hamming distance of every committee to the ballots
+     *
+     * @param p_ballots ballot masks
+     * @param p_result maximal distance for each committee, -1 if there are no ballots
+     */
+    public void max( final long[] p_ballots, final byte[] p_result )
+    {
+        Arrays.fill( p_result, 0, m_committees.length, (byte) -1 );
+
+        for ( int i = 0; i < p_ballots.length; i++ )
+        {
+            final int l_row = this.row( p_ballots[i] );
+            for ( int j = 0; j < m_committees.length; j++ )
+                if ( m_distances[l_row + j] > p_result[j] )
+                    p_result[j] = m_distances[l_row + j];
+        }
+    }
+
+    /**
+     * sum of the Hamming distances of every committee to the ballots
+     *
+     * @param p_ballots ballot masks
+     * @param p_counts number of voters of each ballot
+     * @param p_result sum of the distances for each committee
+     */
+    public void sum( final long[] p_ballots, final int[] p_counts, final int[] p_result )
+    {
+        Arrays.fill( p_result, 0, m_committees.length, 0 );
+
+        for ( int i = 0; i < p_ballots.length; i++ )
+        {
+            final int l_row = this.row( p_ballots[i] );
+            final int l_count = p_counts[i];
+            for ( int j = 0; j < m_committees.length; j++ )
+                p_result[j] += l_count * m_distances[l_row + j];
+        }
+    }
+
+    /**
+     * Minimax Approval by table lookup, ties are broken lexicographically
+     *
+     * @param p_ballots ballot masks
+     * @return winning committee mask
+     */
+    public long minimax( final long[] p_ballots )
+    {
+        final byte[] l_max = new byte[m_committees.length];
+        this.max( p_ballots, l_max );
+
+        int l_winner = 0;
+        for ( int i = 1; i < m_committees.length; i++ )
+            if ( l_max[i] < l_max[l_winner]
+                 || l_max[i] == l_max[l_winner] && CCommitteeEnumerator.precedes( m_committees[i], m_committees[l_winner] ) )
+                l_winner = i;
+
+        return m_committees[l_winner];
+    }
+
+    /**
+     * offset of the row of a ballot, alternatives beyond the table are ignored
+     *
+     * @param p_ballot ballot mask
+     * @return offset
+     */
+    private int row( final long p_ballot )
+    {
+        return (int) ( p_ballot & ( ( 1L << m_altNum ) - 1 ) ) * m_committees.length;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+
+/**
+ * Hamming distance kernels which compare one committee with a whole block of ballots. The ballots
+ * are transposed, so that every word of all ballots is contiguous, and the distances are accumulated
+ * column by column without branches, which lets the JIT compiler unroll and vectorise the
+ * xor/popcount loops. The scalar kernel compares ballot by ballot and is the reference.
+ */
+public final class CHammingKernel
+{
+    /**
+     * constructor
+     */
+    private CHammingKernel()
+    {
+    }
+
+    /**
+     * transpose ballots of several words into columns, so that word j of all ballots is contiguous
+     *
+     * @param p_ballots ballots as words
+     * @param p_words number of words
+     * @return columns, column j holds word j of every ballot
+     */
+    public static long[][] transpose( final long[][] p_ballots, final int p_words )
+    {
+        final long[][] l_columns = new long[p_words][p_ballots.length];
+        for ( int i = 0; i < p_ballots.length; i++ )
+            for ( int j = 0; j < p_words; j++ )
+                l_columns[j][i] = p_ballots[i][j];
+        return l_columns;
+    }
+
+    /**
+     * Hamming distances between a committee of several words and a block of transposed ballots,
+     * every column is processed in one pass
+     *
+     * @param p_columns transposed ballots
+     * @param p_length number of ballots
+     * @param p_committee committee as words
+     * @param p_distances distance of each ballot, is overwritten
+     */
+    public static void distances( final long[][] p_columns, final int p_length, final long[] p_committee, final int[] p_distances )
+    {
+        for ( int i = 0; i < p_length; i++ )
+            p_distances[i] = 0;
+
+        for ( int j = 0; j < p_columns.length; j++ )
+        {
+            final long[] l_column = p_columns[j];
+            final long l_word = p_committee[j];
+            for ( int i = 0; i < p_length; i++ )
+                p_distances[i] += Long.bitCount( l_column[i] ^ l_word );
+        }
+    }
+
+    /**
+     * Hamming distances between a committee of several words and a block of ballots, ballot by ballot
+     *
+     * @param p_ballots ballots as words
+     * @param p_committee committee as words
+     * @param p_distances distance of each ballot, is overwritten
+     */
+    public static void distancesScalar( final long[][] p_ballots, final long[] p_committee, final int[] p_distances )
+    {
+        for ( int i = 0; i < p_ballots.length; i++ )
+        {
+            int l_distance = 0;
+            for ( int j = 0; j < p_committee.length; j++ )
+                l_distance += Long.bitCount( p_ballots[i][j] ^ p_committee[j] );
+            p_distances[i] = l_distance;
+        }
+    }
+}
@@ -24,23 +24,94 @@
 package org.lightvoting.simulation.rule;
 
 import cern.colt.bitvector.BitVector;
-import org.lightvoting.simulation.combinations.CCombination;
+import org.lightvoting.simulation.combinations.CCommitteeEnumerator;
+import org.lightvoting.simulation.combinations.CCommitteeSpace;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
  * Created by sophie on 10.01.17.
- * re-used code from http://stackoverflow.com/questions/8119366/sorting-hashmap-by-values
+ * Computes result of election according to Minimax Approval voting rule.
  */
-public class CMinimaxApproval
+public class CMinimaxApproval implements IVotingRule
 {
+    /**
+     * number of committees which are scored sequentially by a single task of the parallel evaluation
+     */
+    private static final long RANGESIZE = 1 << 12;
+
+    /**
+     * minimal number of committees in a block of the parallel evaluation for which a lower bound is computed
+     */
+    private static final long BLOCKSIZE = 8;
+
+    /**
+     * number of search nodes after which the deadline of a budgeted search is checked
+     */
+    private static final long CHECKINTERVAL = 1 << 10;
+
+    /**
+     * fork/join pool for the parallel evaluation, null for the sequential branch-and-bound search
+     */
+    private final ForkJoinPool m_pool;
+
+    /**
+     * constructor for the sequential evaluation
+     */
+    public CMinimaxApproval()
+    {
+        m_pool = null;
+    }
+
+    /**
+     * constructor for the parallel evaluation, the committee space is split into ranked ranges
+     * which are scored by the workers of a fork/join pool
+     *
+     * @param p_parallelism number of workers
+     */
+    public CMinimaxApproval( final int p_parallelism )
+    {
+        m_pool = p_parallelism > 1 ? new ForkJoinPool( p_parallelism ) : null;
+    }
+
+    @Override
+    public String name()
+    {
+        return "MINIMAX";
+    }
+
+    /**
+     * worst case of scoring every committee against every ballot, the parallel evaluation divides
+     * the work among the workers, the branch-and-bound search usually prunes most of it
+     *
+     * @param p_ballots number of distinct ballots
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return estimated number of operations
+     */
+    @Override
+    public double cost( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        if ( p_altNum > CCommitteeEnumerator.MAXALTERNATIVES )
+            return Double.POSITIVE_INFINITY;
+
+        final double l_work = (double) p_ballots * CCommitteeEnumerator.binomial( p_altNum, p_comSize );
+        return m_pool == null || CDistanceTable.fits( p_altNum, p_comSize ) ? l_work : l_work / m_pool.getParallelism();
+    }
+
+    @Override
+    public IElection election( final int p_altNum, final int p_comSize )
+    {
+        return p_altNum <= CCommitteeEnumerator.MAXALTERNATIVES && CCommitteeEnumerator.binomial( p_altNum, p_comSize ) <= CMinimaxElection.MAXCOMMITTEES
+               ? new CMinimaxElection( p_altNum, p_comSize )
+               : null;
+    }
 
      /***
          * compute the winning committee according to Minimax Approval
@@ -53,108 +124,654 @@ public class CMinimaxApproval
 
     public BitVector applyRuleBV( final List<String> p_alternatives, final List<BitVector> p_votes, final int p_comSize )
     {
-        /* compute all possible committees, i.e. all {0,1}^m vectors with exactly k ones */
+        validate( p_alternatives.size(), p_comSize );
 
-        final List<BitVector> l_bitCommittees = this.computeBitComittees( p_alternatives.size(), p_comSize );
-        System.out.println( l_bitCommittees );
+        /* convert votes once into masks, bit i is set if alternative i is approved */
 
-        /* Hashmap for storing the maximal hamming distance to any vote for all committees */
+        final long[] l_votes = new long[p_votes.size()];
+        for ( int i = 0; i < l_votes.length; i++ )
+            l_votes[i] = toMask( p_votes.get( i ) );
 
-        Map<Integer, Integer> l_maxMap = new HashMap<Integer, Integer>();
+        /* the maximal distance does not depend on the multiplicity, so only distinct votes are scored */
 
-        for ( int i = 0; i < l_bitCommittees.size(); i++ )
-        {
-            /* Key: Committee ID, Value: maximal Hamming distance to any voter */
-            l_maxMap.put(  i, this.determineMaxHDBV( p_votes, l_bitCommittees.get( i ), p_alternatives.size() ) );
-        }
+        Arrays.sort( l_votes );
+        int l_distinct = 0;
+        for ( int i = 0; i < l_votes.length; i++ )
+            if ( i == 0 || l_votes[i] != l_votes[i - 1] )
+                l_votes[l_distinct++] = l_votes[i];
+
+        return toBitVector( this.solve( Arrays.copyOf( l_votes, l_distinct ), p_alternatives.size(), p_comSize ), p_alternatives.size() );
+    }
 
-        l_maxMap = this.sortMapASC( l_maxMap );
+    /**
+     * compute the winning committee according to Minimax Approval on a compressed profile,
+     * only the distinct ballots are scored
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    @Override
+    public CBallot applyRule( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        validate( p_alternatives.size(), p_comSize );
 
-        return l_bitCommittees.get( l_maxMap.entrySet().iterator().next().getKey() );
+        final long[] l_votes = new long[p_profile.distinct()];
+        for ( int i = 0; i < l_votes.length; i++ )
+            l_votes[i] = p_profile.ballot( i ).mask();
 
+        return CBallot.of( this.solve( l_votes, p_alternatives.size(), p_comSize ), p_alternatives.size() );
     }
 
     /**
-     * compute possible committees
+     * compute the best committee according to Minimax Approval which can be found within a time budget.
+     * The sequential branch-and-bound search is stopped at the deadline and returns the best committee
+     * found so far, which is at least as good as the Minisum Approval committee. The lower bound is the
+     * smallest bound of the subtrees which were not searched, so the result is proven optimal if the
+     * search completed or if no remaining subtree can contain a better committee.
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @param p_timeout time budget
+     * @param p_unit unit of time budget
+     * @return result
+     */
+    public CMinimaxResult applyRuleResult( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize,
+                                           final long p_timeout, final TimeUnit p_unit )
+    {
+        return this.solveBudgeted( p_alternatives.size(), p_profile, p_comSize, p_unit.toNanos( p_timeout ), Long.MAX_VALUE );
+    }
+
+    /**
+     * compute the best committee according to Minimax Approval which can be found within a work budget,
+     * which is the number of visited search nodes and does not depend on the machine load
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @param p_nodes maximal number of search nodes
+     * @return result
+     */
+    public CMinimaxResult applyRuleResult( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize, final long p_nodes )
+    {
+        return this.solveBudgeted( p_alternatives.size(), p_profile, p_comSize, Long.MAX_VALUE, p_nodes );
+    }
+
+    /**
+     * run budgeted search
+     *
      * @param p_altNum number of alternatives
+     * @param p_profile profile of distinct ballots
      * @param p_comSize committee size
-     * @return possible committees
+     * @param p_timeout time budget in nanoseconds
+     * @param p_nodes maximal number of search nodes
+     * @return result
      */
+    private CMinimaxResult solveBudgeted( final int p_altNum, final CProfile p_profile, final int p_comSize, final long p_timeout, final long p_nodes )
+    {
+        validate( p_altNum, p_comSize );
+
+        final long[] l_votes = new long[p_profile.distinct()];
+        for ( int i = 0; i < l_votes.length; i++ )
+            l_votes[i] = p_profile.ballot( i ).mask();
 
-    private List<BitVector> computeBitComittees( final int p_altNum, final int p_comSize )
+        /* table lookups are not worth interrupting */
+
+        final CDistanceTable l_table = CDistanceTable.of( p_altNum, p_comSize );
+        if ( l_table != null )
+        {
+            final long l_committee = l_table.minimax( l_votes );
+            final int l_maxHD = determineMaxHD( l_votes, l_committee, Integer.MAX_VALUE );
+            return new CMinimaxResult( CBallot.of( l_committee, p_altNum ), l_maxHD, l_maxHD );
+        }
+
+        final CBranchAndBound l_search = new CBranchAndBound( l_votes, p_altNum, p_comSize, p_timeout, p_nodes );
+        final long l_committee = l_search.solve();
+        return new CMinimaxResult( CBallot.of( l_committee, p_altNum ), l_search.m_minMaxHD, l_search.m_open );
+    }
+
+    /**
+     * check that the committee space can be encoded in masks
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    static void validate( final int p_altNum, final int p_comSize )
     {
-        final CCombination l_combination = new CCombination();
-        final int[] l_arr = new int[p_altNum];
+        if ( p_altNum > CCommitteeEnumerator.MAXALTERNATIVES )
+            throw new IllegalArgumentException( "Minimax Approval supports at most " + CCommitteeEnumerator.MAXALTERNATIVES + " alternatives" );
+        if ( p_comSize < 0 || p_comSize > p_altNum )
+            throw new IllegalArgumentException( "committee size must be between 0 and the number of alternatives" );
+    }
 
-        for ( int i = 0; i < p_altNum; i++ )
-            l_arr[i] = i;
+    /**
+     * compute the winning committee on masks
+     *
+     * @param p_votes votes as masks
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee mask
+     */
+    long solve( final long[] p_votes, final int p_altNum, final int p_comSize )
+    {
+        /* for few alternatives the distances are looked up in the shared table */
 
-        l_combination.combinations( l_arr, p_comSize, 0, new int[p_comSize] );
+        final CDistanceTable l_table = CDistanceTable.of( p_altNum, p_comSize );
+        if ( l_table != null )
+            return l_table.minimax( p_votes );
 
-        final List<int[]> l_resultList = l_combination.getResultList();
+        /* small committee spaces are not worth splitting */
 
-        final List<BitVector> l_bitVectors = new LinkedList<>();
+        if ( m_pool == null || CCommitteeEnumerator.binomial( p_altNum, p_comSize ) <= 4 * RANGESIZE )
+            return new CBranchAndBound( p_votes, p_altNum, p_comSize ).solve();
 
-        for ( int i = 0; i < l_resultList.size(); i++ )
-        {
-            final BitVector l_bitVector = new BitVector( p_altNum );
+        return this.solveParallel( p_votes, p_altNum, p_comSize );
+    }
 
-            for ( int j = 0; j < p_comSize; j++ )
-            {
-                l_bitVector.put( l_resultList.get( i )[j], true );
-            }
-            l_bitVectors.add( l_bitVector );
-        }
+    /**
+     * score the committee space in parallel, the workers share the best maximal Hamming distance
+     * as bound, so that committees can be dropped as soon as they exceed it
+     *
+     * @param p_votes votes as masks
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return winning committee mask
+     */
+    private long solveParallel( final long[] p_votes, final int p_altNum, final int p_comSize )
+    {
+        final long l_seed = minisum( p_votes, p_altNum, p_comSize );
+        final AtomicInteger l_bound = new AtomicInteger( determineMaxHD( p_votes, l_seed, Integer.MAX_VALUE ) );
 
-        return l_bitVectors;
+        final CCandidate l_winner = m_pool.invoke(
+            new CRangeTask( p_votes, p_altNum, p_comSize, 0, CCommitteeEnumerator.binomial( p_altNum, p_comSize ), l_bound )
+        );
+
+        return l_winner == null ? l_seed : l_winner.m_committee;
     }
 
-    private int determineMaxHDBV( final List<BitVector> p_votes, final BitVector p_comVect, final int p_altNum )
+    /**
+     * compute maximal Hamming distance of a committee to any vote, the computation stops
+     * as soon as the distance exceeds the given bound
+     *
+     * @param p_votes votes as masks
+     * @param p_committee committee mask
+     * @param p_bound bound
+     * @return maximal Hamming distance, or any value above the bound if the bound is exceeded
+     */
+    static int determineMaxHD( final long[] p_votes, final long p_committee, final int p_bound )
     {
         /* compute Hamming distances to all votes and determine the maximum */
 
         int l_maxHD = -1;
 
-        for ( int i = 0; i < p_votes.size(); i++ )
+        for ( int i = 0; i < p_votes.length; i++ )
         {
-            final BitVector l_curBitCom = p_comVect.copy();
-
-            l_curBitCom.xor( p_votes.get( i ) );
-
-            final int l_curHD = l_curBitCom.cardinality();
+            final int l_curHD = Long.bitCount( p_committee ^ p_votes[i] );
 
             if ( l_curHD > l_maxHD )
+            {
                 l_maxHD = l_curHD;
+                if ( l_maxHD > p_bound )
+                    return l_maxHD;
+            }
         }
-        System.out.println( " maximal HD for committee " + p_comVect + ": " + l_maxHD );
         return l_maxHD;
     }
 
     /**
-     * sort HashMap according to its values in ascending order
+     * compute Minisum Approval committee on masks, ties are broken in favour of lower indices
      *
-     * @param p_valuesMap HashMap with Approval scores
-     * @return sorted HashMap
+     * @param p_votes votes as masks
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee mask
      */
+    static long minisum( final long[] p_votes, final int p_altNum, final int p_comSize )
+    {
+        final int[] l_scores = new int[p_altNum];
+
+        for ( int i = 0; i < p_votes.length; i++ )
+            for ( long l_rest = p_votes[i]; l_rest != 0; l_rest &= l_rest - 1 )
+                l_scores[Long.numberOfTrailingZeros( l_rest )]++;
+
+        long l_committee = 0;
 
+        for ( int i = 0; i < p_comSize; i++ )
+        {
+            int l_best = -1;
+            for ( int j = 0; j < p_altNum; j++ )
+                if ( ( l_committee & 1L << j ) == 0 && ( l_best < 0 || l_scores[j] > l_scores[l_best] ) )
+                    l_best = j;
+            l_committee |= 1L << l_best;
+        }
 
-    public Map<Integer, Integer> sortMapASC( final Map<Integer, Integer> p_valuesMap )
+        return l_committee;
+    }
 
+    /**
+     * mask with the lowest bits set
+     *
+     * @param p_bits number of bits
+     * @return mask
+     */
+    static long lowMask( final int p_bits )
     {
-        final List<Map.Entry<Integer, Integer>> l_list = new LinkedList<>( p_valuesMap.entrySet() );
+        return p_bits >= Long.SIZE ? -1L : ( 1L << p_bits ) - 1;
+    }
 
-        // Sorting the list based on values in ascending order
-        Collections.sort( l_list, Comparator.comparing( Map.Entry::getValue ) );
+    /**
+     * convert vote into mask
+     *
+     * @param p_vote vote
+     * @return mask
+     */
+    static long toMask( final BitVector p_vote )
+    {
+        return p_vote.size() == 0 ? 0 : p_vote.getLongFromTo( 0, p_vote.size() - 1 );
+    }
 
-        /* Maintaining insertion order with the help of LinkedList */
-        final Map<Integer, Integer> l_sortedMap = new LinkedHashMap<Integer, Integer>();
-        for ( final Map.Entry<Integer, Integer> l_entry : l_list )
+    /**
+     * convert mask into committee vector
+     *
+     * @param p_committee committee mask
+     * @param p_altNum number of alternatives
+     * @return committee vector
+     */
+    static BitVector toBitVector( final long p_committee, final int p_altNum )
+    {
+        final BitVector l_bitVector = new BitVector( p_altNum );
+        if ( p_altNum > 0 )
+            l_bitVector.putLongFromTo( p_committee, 0, p_altNum - 1 );
+        return l_bitVector;
+    }
+
+    /**
+     * exact branch-and-bound search over the committee space. Alternatives are decided in index order,
+     * including an alternative before excluding it, so complete committees are reached in lexicographic order.
+     * A partial committee is pruned if its lower bound exceeds the best maximal Hamming distance found so far.
+     * The search starts with the Minisum Approval committee as initial bound and can be limited by a budget.
+     */
+    private static final class CBranchAndBound
+    {
+        /**
+         * votes as masks, reordered during the search so that votes causing cut-offs are checked first
+         */
+        private final long[] m_votes;
+
+        private final int m_altNum;
+
+        private final int m_comSize;
+
+        /**
+         * best committee found so far
+         */
+        private long m_winner;
+
+        /**
+         * maximal Hamming distance of the best committee
+         */
+        private int m_minMaxHD;
+
+        /**
+         * true if no committee reached later in the search can win a tie against the best committee
+         */
+        private boolean m_settled;
+
+        /**
+         * time budget in nanoseconds, Long.MAX_VALUE if unlimited
+         */
+        private final long m_timeout;
+
+        /**
+         * maximal number of search nodes
+         */
+        private final long m_maxNodes;
+
+        /**
+         * start time of the search
+         */
+        private long m_start;
+
+        /**
+         * number of visited search nodes
+         */
+        private long m_nodes;
+
+        /**
+         * true if the budget is exhausted
+         */
+        private boolean m_stopped;
+
+        /**
+         * lower bound of the optimal maximal Hamming distance, which is the smallest bound of the
+         * subtrees which were not searched, or the maximal Hamming distance of the winner
+         */
+        private int m_open;
+
+        /**
+         * constructor
+         *
+         * @param p_votes votes as masks
+         * @param p_altNum number of alternatives
+         * @param p_comSize committee size
+         */
+        CBranchAndBound( final long[] p_votes, final int p_altNum, final int p_comSize )
+        {
+            this( p_votes, p_altNum, p_comSize, Long.MAX_VALUE, Long.MAX_VALUE );
+        }
+
+        /**
+         * constructor for a budgeted search
+         *
+         * @param p_votes votes as masks
+         * @param p_altNum number of alternatives
+         * @param p_comSize committee size
+         * @param p_timeout time budget in nanoseconds
+         * @param p_nodes maximal number of search nodes
+         */
+        CBranchAndBound( final long[] p_votes, final int p_altNum, final int p_comSize, final long p_timeout, final long p_nodes )
+        {
+            m_votes = p_votes.clone();
+            m_altNum = p_altNum;
+            m_comSize = p_comSize;
+            m_timeout = p_timeout;
+            m_maxNodes = p_nodes;
+        }
+
+        /**
+         * run search
+         *
+         * @return winning committee mask
+         */
+        long solve()
+        {
+            m_winner = minisum( m_votes, m_altNum, m_comSize );
+            m_minMaxHD = determineMaxHD( m_votes, m_winner, Integer.MAX_VALUE );
+            m_settled = false;
+            m_start = System.nanoTime();
+            m_nodes = 0;
+            m_stopped = false;
+            m_open = Integer.MAX_VALUE;
+
+            this.search( 0, 0, 0 );
+
+            m_open = Math.min( m_open, m_minMaxHD );
+            return m_winner;
+        }
+
+        /**
+         * depth-first search
+         *
+         * @param p_depth number of decided alternatives
+         * @param p_partial chosen alternatives
+         * @param p_chosen number of chosen alternatives
+         */
+        private void search( final int p_depth, final long p_partial, final int p_chosen )
+        {
+            final int l_bound = this.lowerBound( p_depth, p_partial, p_chosen );
+
+            if ( l_bound > m_minMaxHD || m_settled && l_bound == m_minMaxHD )
+                return;
+
+            /* after the budget is exhausted, the remaining subtrees only contribute their bounds */
+
+            if ( m_stopped || this.exhausted() )
+            {
+                m_open = Math.min( m_open, l_bound );
+                return;
+            }
+
+            /* all remaining alternatives are determined, the lower bound is exact */
+
+            if ( p_chosen == m_comSize || m_altNum - p_depth == m_comSize - p_chosen )
+            {
+                final long l_committee = p_chosen == m_comSize ? p_partial : p_partial | lowMask( m_altNum ) & ~lowMask( p_depth );
+                this.update( l_committee, l_bound );
+                return;
+            }
+
+            this.search( p_depth + 1, p_partial | 1L << p_depth, p_chosen + 1 );
+            this.search( p_depth + 1, p_partial, p_chosen );
+        }
+
+        /**
+         * count search node and check the budget, the clock is read only every few nodes
+         *
+         * @return true if the budget is exhausted
+         */
+        private boolean exhausted()
+        {
+            m_nodes++;
+            m_stopped = m_nodes > m_maxNodes
+                        || m_timeout != Long.MAX_VALUE && m_nodes % CHECKINTERVAL == 0 && System.nanoTime() - m_start > m_timeout;
+            return m_stopped;
+        }
+
+        /**
+         * store committee if it is better than the best one found so far
+         *
+         * @param p_committee committee mask
+         * @param p_maxHD maximal Hamming distance of the committee
+         */
+        private void update( final long p_committee, final int p_maxHD )
+        {
+            if ( p_maxHD < m_minMaxHD || p_maxHD == m_minMaxHD && CCommitteeEnumerator.precedes( p_committee, m_winner ) )
+            {
+                m_winner = p_committee;
+                m_minMaxHD = p_maxHD;
+            }
+
+            /* later committees are lexicographically larger, i.e. they cannot win ties anymore */
+            m_settled = true;
+        }
+
+        /**
+         * lower bound of the maximal Hamming distance for all completions of a partial committee.
+         * For every vote, the distance on the decided alternatives is fixed, on the undecided ones
+         * it is at least the difference between the approved and the still missing alternatives.
+         *
+         * @param p_depth number of decided alternatives
+         * @param p_partial chosen alternatives
+         * @param p_chosen number of chosen alternatives
+         * @return lower bound, stops as soon as the best maximal Hamming distance is exceeded
+         */
+        private int lowerBound( final int p_depth, final long p_partial, final int p_chosen )
         {
-            l_sortedMap.put( l_entry.getKey(), l_entry.getValue() );
+            final long l_decided = lowMask( p_depth );
+            final long l_undecided = lowMask( m_altNum ) & ~l_decided;
+            final int l_missing = m_comSize - p_chosen;
+
+            int l_bound = 0;
+
+            for ( int i = 0; i < m_votes.length; i++ )
+            {
+                final int l_curHD = Long.bitCount( ( p_partial ^ m_votes[i] ) & l_decided )
+                                    + Math.abs( Long.bitCount( m_votes[i] & l_undecided ) - l_missing );
+
+                if ( l_curHD > l_bound )
+                {
+                    l_bound = l_curHD;
+
+                    if ( l_bound > m_minMaxHD )
+                    {
+                        /* move vote to the front, it is likely to cut off the next partial committees as well */
+                        final long l_vote = m_votes[i];
+                        m_votes[i] = m_votes[0];
+                        m_votes[0] = l_vote;
+                        return l_bound;
+                    }
+                }
+            }
+
+            return l_bound;
         }
+    }
+
+    /**
+     * committee with its maximal Hamming distance
+     */
+    private static final class CCandidate
+    {
+        private final long m_committee;
 
-        return l_sortedMap;
+        private final int m_maxHD;
+
+        /**
+         * constructor
+         *
+         * @param p_committee committee mask
+         * @param p_maxHD maximal Hamming distance
+         */
+        CCandidate( final long p_committee, final int p_maxHD )
+        {
+            m_committee = p_committee;
+            m_maxHD = p_maxHD;
+        }
+
+        /**
+         * deterministic comparison, lower maximal Hamming distance first, ties are broken lexicographically
+         *
+         * @param p_first first candidate, can be null
+         * @param p_second second candidate, can be null
+         * @return better candidate
+         */
+        static CCandidate better( final CCandidate p_first, final CCandidate p_second )
+        {
+            if ( p_first == null )
+                return p_second;
+            if ( p_second == null )
+                return p_first;
+
+            return p_second.m_maxHD < p_first.m_maxHD
+                   || p_second.m_maxHD == p_first.m_maxHD && CCommitteeEnumerator.precedes( p_second.m_committee, p_first.m_committee )
+                   ? p_second
+                   : p_first;
+        }
     }
-}
 
+    /**
+     * fork/join task scoring a range of ranks of the committee space
+     */
+    private static final class CRangeTask extends RecursiveTask<CCandidate>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] m_votes;
+
+        private final int m_altNum;
+
+        private final int m_comSize;
 
+        /**
+         * first rank (inclusive)
+         */
+        private final long m_from;
+
+        /**
+         * last rank (exclusive)
+         */
+        private final long m_to;
+
+        /**
+         * best maximal Hamming distance found by any worker
+         */
+        private final AtomicInteger m_bound;
+
+        /**
+         * constructor
+         *
+         * @param p_votes votes as masks
+         * @param p_altNum number of alternatives
+         * @param p_comSize committee size
+         * @param p_from first rank (inclusive)
+         * @param p_to last rank (exclusive)
+         * @param p_bound shared bound
+         */
+        CRangeTask( final long[] p_votes, final int p_altNum, final int p_comSize, final long p_from, final long p_to, final AtomicInteger p_bound )
+        {
+            m_votes = p_votes;
+            m_altNum = p_altNum;
+            m_comSize = p_comSize;
+            m_from = p_from;
+            m_to = p_to;
+            m_bound = p_bound;
+        }
+
+        @Override
+        protected CCandidate compute()
+        {
+            if ( m_to - m_from > RANGESIZE )
+            {
+                final long l_middle = m_from + ( m_to - m_from ) / 2;
+                final CRangeTask l_left = new CRangeTask( m_votes, m_altNum, m_comSize, m_from, l_middle, m_bound );
+                l_left.fork();
+                final CCandidate l_right = new CRangeTask( m_votes, m_altNum, m_comSize, l_middle, m_to, m_bound ).compute();
+                return CCandidate.better( l_left.join(), l_right );
+            }
+
+            final CCommitteeEnumerator l_committees = CCommitteeSpace.of( m_altNum, m_comSize ).iterator( m_from, m_to );
+            long l_winner = 0;
+            int l_minMaxHD = Integer.MAX_VALUE;
+
+            while ( l_committees.hasNext() )
+            {
+                final long l_committee = l_committees.nextLong();
+                final int l_bound = Math.min( m_bound.get(), l_minMaxHD );
+
+                /* skip the block of committees starting here if none of them can beat the bound */
+
+                final long l_block = this.block( l_committee, l_bound );
+                if ( l_block > 0 )
+                {
+                    l_committees.skip( l_block - 1 );
+                    continue;
+                }
+
+                final int l_maxHD = determineMaxHD( m_votes, l_committee, l_bound );
+
+                if ( l_maxHD < l_minMaxHD || l_maxHD == l_minMaxHD && CCommitteeEnumerator.precedes( l_committee, l_winner ) )
+                {
+                    l_minMaxHD = l_maxHD;
+                    l_winner = l_committee;
+                    m_bound.accumulateAndGet( l_maxHD, Math::min );
+                }
+            }
+
+            return l_minMaxHD > m_bound.get() ? null : new CCandidate( l_winner, l_minMaxHD );
+        }
+
+        /**
+         * a committee whose lowest j alternatives are 0, ..., j - 1 starts a contiguous block of the
+         * colexicographic order, in which the higher alternatives are fixed and the lowest j alternatives
+         * run through all j-subsets below the lowest fixed alternative
+         *
+         * @param p_committee committee mask
+         * @param p_bound bound
+         * @return size of the block if its lower bound exceeds the bound, otherwise zero
+         */
+        private long block( final long p_committee, final int p_bound )
+        {
+            final int l_free = Long.numberOfTrailingZeros( ~p_committee );
+            if ( l_free == 0 )
+                return 0;
+
+            final long l_fixed = p_committee & ~lowMask( l_free );
+            final int l_lowest = l_fixed == 0 ? m_altNum : Long.numberOfTrailingZeros( l_fixed );
+            final long l_size = CCommitteeEnumerator.binomial( l_lowest, l_free );
+            if ( l_size < BLOCKSIZE )
+                return 0;
+
+            final long l_undecided = lowMask( l_lowest );
+            final long l_decided = lowMask( m_altNum ) & ~l_undecided;
+
+            for ( int i = 0; i < m_votes.length; i++ )
+                if ( Long.bitCount( ( l_fixed ^ m_votes[i] ) & l_decided )
+                     + Math.abs( Long.bitCount( m_votes[i] & l_undecided ) - l_free ) > p_bound )
+                    return l_size;
+
+            return 0;
+        }
+    }
+}
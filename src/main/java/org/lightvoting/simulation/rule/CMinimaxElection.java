@@ -0,0 +1,247 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import org.lightvoting.simulation.combinations.CCommitteeEnumerator;
+import org.lightvoting.simulation.combinations.CCommitteeSpace;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * stateful Minimax Approval election, which keeps the maximal Hamming distance of every committee
+ * together with the number of ballots at this distance. Adding a ballot updates every committee in
+ * constant time, removing a ballot only rescans the ballots for committees whose maximum was reached
+ * by the removed ballot alone. The result is identical to CMinimaxApproval on the current ballots.
+ */
+public final class CMinimaxElection implements IElection
+{
+    /**
+     * maximal number of committees which are kept in memory
+     */
+    public static final long MAXCOMMITTEES = 1 << 22;
+
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * all committees as masks, shared by all elections of the same committee space
+     */
+    private final long[] m_committees;
+
+    /**
+     * maximal Hamming distance of each committee to any ballot
+     */
+    private final byte[] m_maxHD;
+
+    /**
+     * number of ballots with the maximal Hamming distance for each committee
+     */
+    private final int[] m_support;
+
+    /**
+     * distinct ballots as masks with their multiplicity
+     */
+    private final Map<Long, Integer> m_ballots = new HashMap<>();
+
+    /**
+     * number of ballots
+     */
+    private int m_size;
+
+    /**
+     * index of the winning committee, negative if it needs to be determined
+     */
+    private int m_winner;
+
+    /**
+     * constructor
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    public CMinimaxElection( final int p_altNum, final int p_comSize )
+    {
+        if ( p_altNum > CCommitteeEnumerator.MAXALTERNATIVES || CCommitteeEnumerator.binomial( p_altNum, p_comSize ) > MAXCOMMITTEES )
+            throw new IllegalArgumentException( "committee space of " + p_comSize + " out of " + p_altNum + " alternatives is too large" );
+
+        m_altNum = p_altNum;
+        m_committees = CCommitteeSpace.of( p_altNum, p_comSize ).committees();
+        m_maxHD = new byte[m_committees.length];
+        m_support = new int[m_committees.length];
+
+        this.clear();
+    }
+
+    /**
+     * add ballot
+     *
+     * @param p_vote vote
+     */
+    @Override
+    public synchronized void add( final CBallot p_vote )
+    {
+        final long l_vote = p_vote.mask();
+        m_ballots.merge( l_vote, 1, Integer::sum );
+        m_size++;
+
+        for ( int i = 0; i < m_committees.length; i++ )
+        {
+            final int l_curHD = Long.bitCount( m_committees[i] ^ l_vote );
+
+            if ( l_curHD > m_maxHD[i] )
+            {
+                m_maxHD[i] = (byte) l_curHD;
+                m_support[i] = 1;
+            }
+            else if ( l_curHD == m_maxHD[i] )
+                m_support[i]++;
+        }
+
+        m_winner = -1;
+    }
+
+    /**
+     * remove ballot, unknown ballots are ignored
+     *
+     * @param p_vote vote
+     */
+    @Override
+    public synchronized void remove( final CBallot p_vote )
+    {
+        final long l_vote = p_vote.mask();
+        final Integer l_count = m_ballots.get( l_vote );
+        if ( l_count == null )
+            return;
+
+        if ( l_count == 1 )
+            m_ballots.remove( l_vote );
+        else
+            m_ballots.put( l_vote, l_count - 1 );
+        m_size--;
+
+        long[] l_distinct = null;
+        int[] l_counts = null;
+
+        for ( int i = 0; i < m_committees.length; i++ )
+        {
+            if ( Long.bitCount( m_committees[i] ^ l_vote ) != m_maxHD[i] || --m_support[i] > 0 )
+                continue;
+
+            // the removed ballot was the last one at the maximal distance, so the remaining ballots are rescanned
+            if ( l_distinct == null )
+            {
+                l_distinct = new long[m_ballots.size()];
+                l_counts = new int[m_ballots.size()];
+                int l_index = 0;
+                for ( final Map.Entry<Long, Integer> l_entry : m_ballots.entrySet() )
+                {
+                    l_distinct[l_index] = l_entry.getKey();
+                    l_counts[l_index++] = l_entry.getValue();
+                }
+            }
+
+            this.rescan( i, l_distinct, l_counts );
+        }
+
+        m_winner = -1;
+    }
+
+    /**
+     * remove all ballots
+     */
+    @Override
+    public synchronized void clear()
+    {
+        m_ballots.clear();
+        m_size = 0;
+        Arrays.fill( m_maxHD, (byte) -1 );
+        Arrays.fill( m_support, 0 );
+        m_winner = -1;
+    }
+
+    /**
+     * return number of ballots
+     *
+     * @return number of ballots
+     */
+    @Override
+    public synchronized int size()
+    {
+        return m_size;
+    }
+
+    /**
+     * return current winning committee, ties are broken lexicographically
+     *
+     * @return committee
+     */
+    @Override
+    public synchronized CBallot result()
+    {
+        if ( m_winner < 0 )
+        {
+            m_winner = 0;
+            for ( int i = 1; i < m_committees.length; i++ )
+                if ( m_maxHD[i] < m_maxHD[m_winner]
+                     || m_maxHD[i] == m_maxHD[m_winner] && CCommitteeEnumerator.precedes( m_committees[i], m_committees[m_winner] ) )
+                    m_winner = i;
+        }
+
+        return CBallot.of( m_committees[m_winner], m_altNum );
+    }
+
+    /**
+     * recompute maximal Hamming distance and its support of a committee
+     *
+     * @param p_index index of the committee
+     * @param p_ballots distinct ballots
+     * @param p_counts multiplicity of the ballots
+     */
+    private void rescan( final int p_index, final long[] p_ballots, final int[] p_counts )
+    {
+        int l_maxHD = -1;
+        int l_support = 0;
+
+        for ( int i = 0; i < p_ballots.length; i++ )
+        {
+            final int l_curHD = Long.bitCount( m_committees[p_index] ^ p_ballots[i] );
+
+            if ( l_curHD > l_maxHD )
+            {
+                l_maxHD = l_curHD;
+                l_support = p_counts[i];
+            }
+            else if ( l_curHD == l_maxHD )
+                l_support += p_counts[i];
+        }
+
+        m_maxHD[p_index] = (byte) l_maxHD;
+        m_support[p_index] = l_support;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+
+/**
+ * result of a Minimax Approval computation, which is not necessarily optimal. Besides the committee
+ * it reports its maximal Hamming distance to any ballot and a lower bound of the optimal maximal
+ * Hamming distance, so that the distance to the optimum can be judged.
+ */
+public final class CMinimaxResult
+{
+    /**
+     * committee
+     */
+    private final CBallot m_committee;
+
+    /**
+     * maximal Hamming distance of the committee to any ballot
+     */
+    private final int m_maxHD;
+
+    /**
+     * lower bound of the optimal maximal Hamming distance
+     */
+    private final int m_lowerBound;
+
+    /**
+     * constructor
+     *
+     * @param p_committee committee
+     * @param p_maxHD maximal Hamming distance of the committee
+     * @param p_lowerBound lower bound of the optimal maximal Hamming distance
+     */
+    public CMinimaxResult( final CBallot p_committee, final int p_maxHD, final int p_lowerBound )
+    {
+        m_committee = p_committee;
+        m_maxHD = p_maxHD;
+        m_lowerBound = Math.min( p_lowerBound, p_maxHD );
+    }
+
+    /**
+     * return committee
+     *
+     * @return committee
+     */
+    public CBallot committee()
+    {
+        return m_committee;
+    }
+
+    /**
+     * return maximal Hamming distance of the committee
+     *
+     * @return maximal Hamming distance
+     */
+    public int maxHD()
+    {
+        return m_maxHD;
+    }
+
+    /**
+     * return lower bound of the optimal maximal Hamming distance
+     *
+     * @return lower bound
+     */
+    public int lowerBound()
+    {
+        return m_lowerBound;
+    }
+
+    /**
+     * check if the committee is proven to be optimal
+     *
+     * @return true if the maximal Hamming distance reaches the lower bound
+     */
+    public boolean optimal()
+    {
+        return m_maxHD <= m_lowerBound;
+    }
+
+    /**
+     * return worst-case ratio between the maximal Hamming distance of the committee and the optimal one
+     *
+     * @return ratio, at least 1
+     */
+    public double ratio()
+    {
+        if ( this.optimal() )
+            return 1;
+        return m_lowerBound == 0 ? Double.POSITIVE_INFINITY : (double) m_maxHD / m_lowerBound;
+    }
+
+    @Override
+    public String toString()
+    {
+        return m_committee + " (maximal Hamming distance " + m_maxHD + ", lower bound " + m_lowerBound + ")";
+    }
+}
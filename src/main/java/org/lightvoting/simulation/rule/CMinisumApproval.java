@@ -24,37 +24,47 @@
 package org.lightvoting.simulation.rule;
 
 
-//import java.util.Arrays;
-
 import cern.colt.bitvector.BitVector;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 
 
 /**
  * Created by sophie on 10.01.17.
  * Computes result of election according to Minisum Approval voting rule.
- * re-used code from http://stackoverflow.com/questions/8119366/sorting-hashmap-by-values
  */
 
-public class CMinisumApproval
+public class CMinisumApproval implements IVotingRule
 {
+    /**
+     * per-thread score vector, so that the rule does not allocate per call and can be shared
+     */
+    private static final ThreadLocal<int[]> SCORES = ThreadLocal.withInitial( () -> new int[0] );
+
+    /**
+     * per-thread buffer for the indices of the k best alternatives
+     */
+    private static final ThreadLocal<int[]> TOP = ThreadLocal.withInitial( () -> new int[0] );
 
-    /* m_alternatives list */
-    private List<String> m_alternatives;
-    /* committee size */
-    private int m_comSize;
+    @Override
+    public String name()
+    {
+        return "MINISUM";
+    }
 
-    private BitVector m_comBV;
+    @Override
+    public double cost( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        return (double) p_ballots * CBallot.words( p_altNum ) * Long.SIZE + p_altNum * p_comSize;
+    }
 
-    private List<BitVector> m_bitVotes;
+    @Override
+    public IElection election( final int p_altNum, final int p_comSize )
+    {
+        return new CMinisumElection( p_altNum, p_comSize );
+    }
 
     /**
      * compute the winning committee according to Minisum Approval
@@ -67,73 +77,199 @@ public class CMinisumApproval
 
     public BitVector applyRuleBV( final List<String> p_alternatives, final List<BitVector> p_votes, final int p_comSize )
     {
-        m_alternatives = p_alternatives;
-        m_comSize = p_comSize;
-        m_bitVotes = p_votes;
-        m_comBV = new BitVector( m_alternatives.size() );
+        final int l_altNum = p_alternatives.size();
+        final int[] l_scores = buffer( SCORES, l_altNum );
 
-        final int[] l_valuesVect = new int[m_alternatives.size()];
+        Arrays.fill( l_scores, 0, l_altNum, 0 );
+        tally( p_votes, l_altNum, l_scores );
 
-        Map<Integer, Integer> l_valuesMap = new HashMap<Integer, Integer>();
-        for ( int i = 0; i < m_alternatives.size(); i++ )
-        {
-            for ( int j = 0; j < m_bitVotes.size(); j++ )
-            {
-                if ( ( m_bitVotes.get( j ) ).get( i ) )
-                {
-                    l_valuesVect[i]++;
-                }
-            }
+        return committeeBV( l_scores, l_altNum, p_comSize );
+    }
+
+    /**
+     * compute the winning committee according to Minisum Approval on a compressed profile
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    @Override
+    public CBallot applyRule( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        final int l_altNum = p_alternatives.size();
+        final int[] l_scores = buffer( SCORES, l_altNum );
 
-            /* create HashMap with index of alternative as key and score of alternative as value */
+        Arrays.fill( l_scores, 0, l_altNum, 0 );
+        if ( p_profile.distinct() >= CBitSlicedTally.MINBALLOTS )
+            CBitSlicedTally.tally( p_profile, l_altNum, l_scores );
+        else
+            for ( int i = 0; i < p_profile.distinct(); i++ )
+                tally( p_profile.ballot( i ), p_profile.count( i ), l_altNum, l_scores );
 
-            l_valuesMap.put( i, l_valuesVect[i] );
-        }
+        return committee( l_scores, l_altNum, p_comSize );
+    }
 
-        /* sort the HashMap in descending order according to values */
+    /**
+     * compute the winning committee according to Minisum Approval on a sparse profile,
+     * the tally takes O(number of approvals)
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile sparse profile
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
 
-        l_valuesMap = this.sortMapDESC( l_valuesMap );
+    public CBallot applyRule( final List<String> p_alternatives, final CSparseProfile p_profile, final int p_comSize )
+    {
+        final int l_altNum = p_alternatives.size();
+        final int[] l_scores = buffer( SCORES, l_altNum );
 
-        /* create committee vector according to sorted HashMap: For the first k entries, put a "1" in the position according to the index, i.e. the key.*/
+        Arrays.fill( l_scores, 0, l_altNum, 0 );
+        p_profile.tally( l_scores );
 
-        int l_occupied = 0;
+        return committee( l_scores, l_altNum, p_comSize );
+    }
 
-        for ( final Entry<Integer, Integer> l_entry : l_valuesMap.entrySet() )
+    /**
+     * add approval scores of the votes, every vote is read once word by word
+     *
+     * @param p_votes votes
+     * @param p_altNum number of alternatives
+     * @param p_scores score vector
+     */
+    static void tally( final List<BitVector> p_votes, final int p_altNum, final int[] p_scores )
+    {
+        for ( int i = 0; i < p_votes.size(); i++ )
         {
-            if ( l_occupied < m_comSize )
+            final long[] l_words = p_votes.get( i ).elements();
+
+            for ( int j = 0; j < l_words.length; j++ )
+                for ( long l_rest = l_words[j]; l_rest != 0; l_rest &= l_rest - 1 )
+                {
+                    final int l_alternative = ( j << 6 ) + Long.numberOfTrailingZeros( l_rest );
+                    if ( l_alternative >= p_altNum )
+                        break;
+                    p_scores[l_alternative]++;
+                }
+        }
+    }
+
+    /**
+     * add weighted approval scores of a vote
+     *
+     * @param p_vote vote
+     * @param p_weight weight of the vote
+     * @param p_altNum number of alternatives
+     * @param p_scores score vector
+     */
+    static void tally( final CBallot p_vote, final int p_weight, final int p_altNum, final int[] p_scores )
+    {
+        for ( int j = 0; j < p_vote.words(); j++ )
+            for ( long l_rest = p_vote.word( j ); l_rest != 0; l_rest &= l_rest - 1 )
             {
-                m_comBV.put( l_entry.getKey(), true );
-                l_occupied++;
+                final int l_alternative = ( j << 6 ) + Long.numberOfTrailingZeros( l_rest );
+                if ( l_alternative >= p_altNum )
+                    return;
+                p_scores[l_alternative] += p_weight;
             }
-            else
-                break;
-        }
+    }
 
-        return m_comBV;
+    /**
+     * create committee of the k alternatives with the highest scores, ties are broken in favour of lower indices
+     *
+     * @param p_scores score vector
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee
+     */
+    static CBallot committee( final int[] p_scores, final int p_altNum, final int p_comSize )
+    {
+        final int[] l_top = buffer( TOP, p_comSize );
+        return ballot( l_top, selectTop( p_scores, p_altNum, p_comSize, l_top ), p_altNum );
     }
 
     /**
-     * sort HashMap according to its values in descending order
+     * create committee vector of the k alternatives with the highest scores, ties are broken in favour of lower indices
      *
-     * @param p_valuesMap HashMap with Approval scores
-     * @return sorted HashMap
+     * @param p_scores score vector
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee vector
      */
-    public Map<Integer, Integer> sortMapDESC( final Map<Integer, Integer> p_valuesMap )
+    private static BitVector committeeBV( final int[] p_scores, final int p_altNum, final int p_comSize )
     {
-        final List<Entry<Integer, Integer>> l_list = new LinkedList<>( p_valuesMap.entrySet() );
+        final int[] l_top = buffer( TOP, p_comSize );
+        final int l_size = selectTop( p_scores, p_altNum, p_comSize, l_top );
+
+        final BitVector l_comBV = new BitVector( p_altNum );
+        for ( int i = 0; i < l_size; i++ )
+            l_comBV.put( l_top[i], true );
 
-        /* Sorting the list based on values in descending order */
-        Collections.sort( l_list, ( p_first, p_second ) ->
-            p_second.getValue().compareTo( p_first.getValue() ) );
+        return l_comBV;
+    }
 
-        /* Maintaining insertion order with the help of LinkedList */
-        final Map<Integer, Integer> l_sortedMap = new LinkedHashMap<Integer, Integer>();
-        for ( final Entry<Integer, Integer> l_entry : l_list )
+    /**
+     * create committee of the given alternatives
+     *
+     * @param p_top indices of alternatives
+     * @param p_size number of indices
+     * @param p_altNum number of alternatives
+     * @return committee
+     */
+    static CBallot ballot( final int[] p_top, final int p_size, final int p_altNum )
+    {
+        final long[] l_words = new long[CBallot.words( p_altNum )];
+        for ( int i = 0; i < p_size; i++ )
+            l_words[p_top[i] >>> 6] |= 1L << p_top[i];
+
+        return CBallot.wrap( l_words, p_altNum );
+    }
+
+    /**
+     * partial selection of the k alternatives with the highest scores. The buffer keeps the
+     * best alternatives seen so far ordered by descending score, alternatives are visited
+     * in index order and only displace alternatives with a strictly lower score.
+     *
+     * @param p_scores score vector
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @param p_top buffer for the selected indices, ordered by descending score
+     * @return number of selected alternatives
+     */
+    static int selectTop( final int[] p_scores, final int p_altNum, final int p_comSize, final int[] p_top )
+    {
+        int l_size = 0;
+
+        for ( int i = 0; i < p_altNum; i++ )
         {
-            l_sortedMap.put( l_entry.getKey(), l_entry.getValue() );
+            if ( l_size == p_comSize && ( p_comSize == 0 || p_scores[p_top[l_size - 1]] >= p_scores[i] ) )
+                continue;
+
+            int l_position = l_size < p_comSize ? l_size++ : l_size - 1;
+            while ( l_position > 0 && p_scores[p_top[l_position - 1]] < p_scores[i] )
+            {
+                p_top[l_position] = p_top[l_position - 1];
+                l_position--;
+            }
+            p_top[l_position] = i;
         }
 
-        return l_sortedMap;
+        return l_size;
+    }
+
+    /**
+     * return per-thread buffer with at least the given length
+     *
+     * @param p_buffer buffer
+     * @param p_length length
+     * @return array
+     */
+    private static int[] buffer( final ThreadLocal<int[]> p_buffer, final int p_length )
+    {
+        if ( p_buffer.get().length < p_length )
+            p_buffer.set( new int[p_length] );
+        return p_buffer.get();
     }
 
 }
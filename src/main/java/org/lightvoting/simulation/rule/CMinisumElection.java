@@ -0,0 +1,220 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Arrays;
+
+
+/**
+ * stateful Minisum Approval election, which keeps the approval scores and the k best alternatives
+ * up to date while ballots are added or removed, e.g. by iterative voting. An update costs O(m)
+ * at most, the result is identical to CMinisumApproval on the current ballots.
+ */
+public final class CMinisumElection implements IElection
+{
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * committee size
+     */
+    private final int m_comSize;
+
+    /**
+     * approval score of each alternative
+     */
+    private final int[] m_scores;
+
+    /**
+     * k best alternatives ordered by descending score, ties in favour of lower indices
+     */
+    private final int[] m_top;
+
+    /**
+     * flag for each alternative, whether it is one of the k best alternatives
+     */
+    private final boolean[] m_inTop;
+
+    /**
+     * number of entries in the top list
+     */
+    private int m_topSize;
+
+    /**
+     * number of ballots
+     */
+    private int m_size;
+
+    /**
+     * true if the top list needs to be recomputed from the scores
+     */
+    private boolean m_dirty;
+
+    /**
+     * constructor
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     */
+    public CMinisumElection( final int p_altNum, final int p_comSize )
+    {
+        m_altNum = p_altNum;
+        m_comSize = p_comSize;
+        m_scores = new int[p_altNum];
+        m_top = new int[p_comSize];
+        m_inTop = new boolean[p_altNum];
+        m_dirty = true;
+    }
+
+    /**
+     * add ballot
+     *
+     * @param p_vote vote
+     */
+    @Override
+    public synchronized void add( final CBallot p_vote )
+    {
+        m_size++;
+
+        // if only alternatives of the top list gain, the top list only needs to be reordered
+        if ( this.update( p_vote, 1, false ) )
+            m_dirty = true;
+        else if ( !m_dirty )
+            this.reorder();
+    }
+
+    /**
+     * remove ballot
+     *
+     * @param p_vote vote
+     */
+    @Override
+    public synchronized void remove( final CBallot p_vote )
+    {
+        m_size--;
+
+        // if no alternative of the top list loses, the top list does not change
+        if ( this.update( p_vote, -1, true ) )
+            m_dirty = true;
+    }
+
+    /**
+     * remove all ballots
+     */
+    @Override
+    public synchronized void clear()
+    {
+        Arrays.fill( m_scores, 0 );
+        m_size = 0;
+        m_dirty = true;
+    }
+
+    /**
+     * return number of ballots
+     *
+     * @return number of ballots
+     */
+    @Override
+    public synchronized int size()
+    {
+        return m_size;
+    }
+
+    /**
+     * return approval score of an alternative
+     *
+     * @param p_alternative index of alternative
+     * @return approval score
+     */
+    public synchronized int score( final int p_alternative )
+    {
+        return m_scores[p_alternative];
+    }
+
+    /**
+     * return current winning committee
+     *
+     * @return committee
+     */
+    @Override
+    public synchronized CBallot result()
+    {
+        if ( m_dirty )
+        {
+            m_topSize = CMinisumApproval.selectTop( m_scores, m_altNum, m_comSize, m_top );
+            Arrays.fill( m_inTop, false );
+            for ( int i = 0; i < m_topSize; i++ )
+                m_inTop[m_top[i]] = true;
+            m_dirty = false;
+        }
+
+        return CMinisumApproval.ballot( m_top, m_topSize, m_altNum );
+    }
+
+    /**
+     * change scores of the approved alternatives
+     *
+     * @param p_vote vote
+     * @param p_delta score change
+     * @param p_inTop membership in the top list which is checked
+     * @return true if an approved alternative has the given membership in the top list
+     */
+    private boolean update( final CBallot p_vote, final int p_delta, final boolean p_inTop )
+    {
+        boolean l_found = false;
+        for ( int j = 0; j < p_vote.words(); j++ )
+            for ( long l_rest = p_vote.word( j ); l_rest != 0; l_rest &= l_rest - 1 )
+            {
+                final int l_alternative = ( j << 6 ) + Long.numberOfTrailingZeros( l_rest );
+                if ( l_alternative >= m_altNum )
+                    break;
+
+                m_scores[l_alternative] += p_delta;
+                l_found |= m_inTop[l_alternative] == p_inTop;
+            }
+
+        return l_found;
+    }
+
+    /**
+     * restore order of the top list by insertion sort, only the scores of its entries have changed
+     */
+    private void reorder()
+    {
+        for ( int i = 1; i < m_topSize; i++ )
+        {
+            final int l_alternative = m_top[i];
+            int l_position = i;
+            while ( l_position > 0 && ( m_scores[m_top[l_position - 1]] < m_scores[l_alternative]
+                                        || m_scores[m_top[l_position - 1]] == m_scores[l_alternative] && m_top[l_position - 1] > l_alternative ) )
+            {
+                m_top[l_position] = m_top[l_position - 1];
+                l_position--;
+            }
+            m_top[l_position] = l_alternative;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * compressed voting profile, which stores every distinct ballot once together with the number
+ * of voters who submitted it. With m alternatives there are at most 2^m distinct ballots, so
+ * voting rules working on the profile scale with the distinct ballots instead of the voters.
+ */
+public final class CProfile
+{
+    /**
+     * position of each distinct ballot
+     */
+    private final Map<CBallot, Integer> m_index = new HashMap<>();
+
+    /**
+     * distinct ballots
+     */
+    private final List<CBallot> m_ballots = new ArrayList<>();
+
+    /**
+     * number of voters for each distinct ballot
+     */
+    private int[] m_counts = new int[8];
+
+    /**
+     * number of ballots
+     */
+    private int m_size;
+
+    /**
+     * constructor of an empty profile
+     */
+    public CProfile()
+    {
+    }
+
+    /**
+     * constructor
+     *
+     * @param p_votes votes
+     */
+    public CProfile( final Collection<CBallot> p_votes )
+    {
+        p_votes.forEach( this::add );
+    }
+
+    /**
+     * add ballot
+     *
+     * @param p_vote vote
+     */
+    public synchronized void add( final CBallot p_vote )
+    {
+        this.add( p_vote, 1 );
+    }
+
+    /**
+     * add ballot several times
+     *
+     * @param p_vote vote
+     * @param p_count number of voters
+     */
+    public synchronized void add( final CBallot p_vote, final int p_count )
+    {
+        if ( p_count <= 0 )
+            return;
+
+        final Integer l_position = m_index.get( p_vote );
+        m_size += p_count;
+
+        if ( l_position != null )
+        {
+            m_counts[l_position] += p_count;
+            return;
+        }
+
+        if ( m_ballots.size() == m_counts.length )
+            m_counts = Arrays.copyOf( m_counts, 2 * m_counts.length );
+
+        m_index.put( p_vote, m_ballots.size() );
+        m_counts[m_ballots.size()] = p_count;
+        m_ballots.add( p_vote );
+    }
+
+    /**
+     * remove one ballot
+     *
+     * @param p_vote vote
+     * @return true if the ballot was part of the profile
+     */
+    public synchronized boolean remove( final CBallot p_vote )
+    {
+        final Integer l_position = m_index.get( p_vote );
+        if ( l_position == null )
+            return false;
+
+        m_size--;
+        if ( --m_counts[l_position] > 0 )
+            return true;
+
+        // move last distinct ballot into the free position
+        final int l_last = m_ballots.size() - 1;
+        m_index.remove( p_vote );
+        if ( l_position != l_last )
+        {
+            m_ballots.set( l_position, m_ballots.get( l_last ) );
+            m_counts[l_position] = m_counts[l_last];
+            m_index.put( m_ballots.get( l_position ), l_position );
+        }
+        m_ballots.remove( l_last );
+
+        return true;
+    }
+
+    /**
+     * remove all ballots
+     */
+    public synchronized void clear()
+    {
+        m_index.clear();
+        m_ballots.clear();
+        m_size = 0;
+    }
+
+    /**
+     * return number of ballots
+     *
+     * @return number of ballots
+     */
+    public synchronized int size()
+    {
+        return m_size;
+    }
+
+    /**
+     * return number of distinct ballots
+     *
+     * @return number of distinct ballots
+     */
+    public synchronized int distinct()
+    {
+        return m_ballots.size();
+    }
+
+    /**
+     * return distinct ballot
+     *
+     * @param p_index index between 0 and the number of distinct ballots
+     * @return ballot
+     */
+    public synchronized CBallot ballot( final int p_index )
+    {
+        return m_ballots.get( p_index );
+    }
+
+    /**
+     * return number of voters of a distinct ballot
+     *
+     * @param p_index index between 0 and the number of distinct ballots
+     * @return number of voters
+     */
+    public synchronized int count( final int p_index )
+    {
+        return m_counts[p_index];
+    }
+
+    /**
+     * canonical fingerprint of the profile, which does not depend on the order in which the ballots
+     * were added. For every distinct ballot in ascending order of its words, the fingerprint holds
+     * the number of words, the words and the number of voters.
+     *
+     * @return fingerprint
+     */
+    public synchronized long[] fingerprint()
+    {
+        final Integer[] l_order = new Integer[m_ballots.size()];
+        int l_length = 0;
+        for ( int i = 0; i < l_order.length; i++ )
+        {
+            l_order[i] = i;
+            l_length += m_ballots.get( i ).words() + 2;
+        }
+        Arrays.sort( l_order, ( p_first, p_second ) -> compare( m_ballots.get( p_first ), m_ballots.get( p_second ) ) );
+
+        final long[] l_fingerprint = new long[l_length];
+        int l_position = 0;
+        for ( final int l_index : l_order )
+        {
+            final CBallot l_ballot = m_ballots.get( l_index );
+            l_fingerprint[l_position++] = l_ballot.words();
+            for ( int j = 0; j < l_ballot.words(); j++ )
+                l_fingerprint[l_position++] = l_ballot.word( j );
+            l_fingerprint[l_position++] = m_counts[l_index];
+        }
+
+        return l_fingerprint;
+    }
+
+    /**
+     * order of ballots by their number of words and by their words as unsigned values
+     *
+     * @param p_first first ballot
+     * @param p_second second ballot
+     * @return comparison result
+     */
+    private static int compare( final CBallot p_first, final CBallot p_second )
+    {
+        if ( p_first.words() != p_second.words() )
+            return Integer.compare( p_first.words(), p_second.words() );
+
+        for ( int j = 0; j < p_first.words(); j++ )
+            if ( p_first.word( j ) != p_second.word( j ) )
+                return Long.compareUnsigned( p_first.word( j ), p_second.word( j ) );
+        return 0;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        final StringBuilder l_builder = new StringBuilder( "{" );
+        for ( int i = 0; i < m_ballots.size(); i++ )
+            l_builder.append( i == 0 ? "" : ", " ).append( m_ballots.get( i ) ).append( "=" ).append( m_counts[i] );
+        return l_builder.append( "}" ).toString();
+    }
+}
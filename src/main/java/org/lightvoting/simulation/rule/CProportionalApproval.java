@@ -0,0 +1,262 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+
+import cern.colt.bitvector.BitVector;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+
+/**
+ * Computes result of election according to sequential Proportional Approval Voting, which is
+ * also known as Reweighted Approval Voting. The committee is filled greedily, every round adds the
+ * alternative with the largest marginal gain, where a voter who already approves j committee
+ * members contributes the weight w(j + 1) = 1 / (j + 1). Other Thiele weights can be passed.
+ * Marginal gains only decrease while the committee grows, so the alternatives are kept in a
+ * priority queue of stale gains, and only the gain of the alternative on top is refreshed
+ * (lazy greedy). A refresh visits the voters approving the alternative via an inverted index.
+ */
+public class CProportionalApproval implements IVotingRule
+{
+    /**
+     * resolution of the gains, which are rounded to fixed point values, so that alternatives with
+     * mathematically equal gains are tied although the floating point sums differ in the last bits
+     */
+    private static final double RESOLUTION = 1 << 24;
+
+    /**
+     * name of the rule
+     */
+    private final String m_name;
+
+    /**
+     * weight of the j-th approved committee member of a voter, j starts with 1
+     */
+    private final IntToDoubleFunction m_weight;
+
+    /**
+     * constructor for Proportional Approval Voting with harmonic weights
+     */
+    public CProportionalApproval()
+    {
+        this( "PAV", i -> 1.0 / i );
+    }
+
+    /**
+     * constructor for sequential Thiele rules, the weights must not increase,
+     * e.g. 1 / (2j - 1) for the Sainte-Lague variant
+     *
+     * @param p_name name of the rule
+     * @param p_weight weight of the j-th approved committee member of a voter, j starts with 1
+     */
+    public CProportionalApproval( final String p_name, final IntToDoubleFunction p_weight )
+    {
+        m_name = p_name;
+        m_weight = p_weight;
+    }
+
+    @Override
+    public String name()
+    {
+        return m_name;
+    }
+
+    /**
+     * building the inverted index and one refresh per alternative and round in the worst case
+     *
+     * @param p_ballots number of distinct ballots
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return estimated number of operations
+     */
+    @Override
+    public double cost( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        return (double) p_ballots * p_altNum * ( 1 + p_comSize );
+    }
+
+    /**
+     * compute the winning committee according to sequential Proportional Approval Voting
+     *
+     * @param p_alternatives available alternatives
+     * @param p_votes submitted votes
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    public BitVector applyRuleBV( final List<String> p_alternatives, final List<BitVector> p_votes, final int p_comSize )
+    {
+        return this.applyRule( p_alternatives, new CProfile( CBallot.of( p_votes ) ), p_comSize ).toBitVector();
+    }
+
+    /**
+     * compute the winning committee according to sequential Proportional Approval Voting on a compressed profile
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    @Override
+    public CBallot applyRule( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        final CBallot[] l_ballots;
+        final int[] l_counts;
+
+        synchronized ( p_profile )
+        {
+            l_ballots = new CBallot[p_profile.distinct()];
+            l_counts = new int[l_ballots.length];
+            for ( int i = 0; i < l_ballots.length; i++ )
+            {
+                l_ballots[i] = p_profile.ballot( i );
+                l_counts[i] = p_profile.count( i );
+            }
+        }
+
+        return this.elect( l_ballots, l_counts, p_alternatives.size(), p_comSize );
+    }
+
+    /**
+     * lazy greedy selection, ties are broken in favour of lower indices
+     *
+     * @param p_ballots distinct ballots
+     * @param p_counts number of voters of each ballot
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee
+     */
+    CBallot elect( final CBallot[] p_ballots, final int[] p_counts, final int p_altNum, final int p_comSize )
+    {
+        if ( p_comSize < 0 || p_comSize > p_altNum )
+            throw new IllegalArgumentException( "committee size must be between 0 and the number of alternatives" );
+
+        /* inverted index, the distinct ballots approving alternative a are stored in [offsets[a], offsets[a + 1]) */
+
+        final int[] l_offsets = new int[p_altNum + 1];
+        for ( final CBallot l_ballot : p_ballots )
+            forEach( l_ballot, p_altNum, i -> l_offsets[i + 1]++ );
+        for ( int i = 0; i < p_altNum; i++ )
+            l_offsets[i + 1] += l_offsets[i];
+
+        final int[] l_voters = new int[l_offsets[p_altNum]];
+        final int[] l_fill = new int[p_altNum];
+        for ( int j = 0; j < p_ballots.length; j++ )
+        {
+            final int l_row = j;
+            forEach( p_ballots[j], p_altNum, i -> l_voters[l_offsets[i] + l_fill[i]++] = l_row );
+        }
+
+        /* weights and initial gains, which are the weighted approval scores */
+
+        final double[] l_weights = new double[p_comSize + 1];
+        for ( int j = 1; j <= p_comSize; j++ )
+            l_weights[j] = m_weight.applyAsDouble( j );
+
+        final int[] l_satisfaction = new int[p_ballots.length];
+        final long[] l_histogram = new long[p_comSize + 1];
+        final long[] l_gains = new long[p_altNum];
+        final int[] l_refreshed = new int[p_altNum];
+        final PriorityQueue<Integer> l_queue = new PriorityQueue<>(
+            Math.max( 1, p_altNum ), ( i, j ) -> l_gains[i] != l_gains[j] ? Long.compare( l_gains[j], l_gains[i] ) : Integer.compare( i, j )
+        );
+
+        for ( int i = 0; i < p_altNum; i++ )
+        {
+            l_gains[i] = p_comSize == 0 ? 0 : gain( i, l_offsets, l_voters, p_counts, l_satisfaction, l_weights, l_histogram );
+            l_queue.add( i );
+        }
+
+        final long[] l_committee = new long[CBallot.words( p_altNum )];
+
+        for ( int l_round = 1; l_round <= p_comSize; l_round++ )
+        {
+            int l_best = l_queue.poll();
+
+            /* refresh the top until it was computed in this round, then it beats all stale upper bounds */
+
+            while ( l_refreshed[l_best] != l_round )
+            {
+                l_gains[l_best] = gain( l_best, l_offsets, l_voters, p_counts, l_satisfaction, l_weights, l_histogram );
+                l_refreshed[l_best] = l_round;
+                l_queue.add( l_best );
+                l_best = l_queue.poll();
+            }
+
+            l_committee[l_best >>> 6] |= 1L << l_best;
+            for ( int j = l_offsets[l_best]; j < l_offsets[l_best + 1]; j++ )
+                l_satisfaction[l_voters[j]]++;
+        }
+
+        return CBallot.wrap( l_committee, p_altNum );
+    }
+
+    /**
+     * marginal gain of an alternative as fixed point value, the voters are counted per satisfaction first
+     *
+     * @param p_alternative alternative
+     * @param p_offsets offsets of the inverted index
+     * @param p_voters inverted index
+     * @param p_counts number of voters of each ballot
+     * @param p_satisfaction number of approved committee members of each ballot
+     * @param p_weights weights
+     * @param p_histogram buffer for the number of voters per satisfaction
+     * @return marginal gain
+     */
+    private static long gain( final int p_alternative, final int[] p_offsets, final int[] p_voters, final int[] p_counts, final int[] p_satisfaction,
+                                final double[] p_weights, final long[] p_histogram )
+    {
+        Arrays.fill( p_histogram, 0 );
+        for ( int j = p_offsets[p_alternative]; j < p_offsets[p_alternative + 1]; j++ )
+            p_histogram[p_satisfaction[p_voters[j]]] += p_counts[p_voters[j]];
+
+        double l_gain = 0;
+        for ( int j = 0; j < p_histogram.length - 1; j++ )
+            l_gain += p_histogram[j] * p_weights[j + 1];
+        return Math.round( l_gain * RESOLUTION );
+    }
+
+    /**
+     * visit the approved alternatives of a ballot
+     *
+     * @param p_ballot ballot
+     * @param p_altNum number of alternatives
+     * @param p_consumer consumer of the alternative indices
+     */
+    private static void forEach( final CBallot p_ballot, final int p_altNum, final IntConsumer p_consumer )
+    {
+        for ( int j = 0; j < p_ballot.words(); j++ )
+            for ( long l_rest = p_ballot.word( j ); l_rest != 0; l_rest &= l_rest - 1 )
+            {
+                final int l_alternative = ( j << 6 ) + Long.numberOfTrailingZeros( l_rest );
+                if ( l_alternative >= p_altNum )
+                    return;
+                p_consumer.accept( l_alternative );
+            }
+    }
+}
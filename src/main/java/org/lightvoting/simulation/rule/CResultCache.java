@@ -0,0 +1,241 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * bounded, thread-safe cache of election results. Results are keyed by the rule, the number of
+ * alternatives, the committee size and the canonical fingerprint of the profile, so groups with
+ * the same multiset of ballots share their result. The least recently used entry is evicted when
+ * the capacity is reached. Results are computed outside of the lock, so a slow rule does not block
+ * other chairs, at worst a result is computed twice.
+ */
+public final class CResultCache
+{
+    /**
+     * default capacity of the shared cache
+     */
+    public static final int CAPACITY = 1 << 12;
+
+    /**
+     * cache shared by all chairs
+     */
+    public static final CResultCache SHARED = new CResultCache( CAPACITY );
+
+    /**
+     * cached results in access order
+     */
+    private final Map<CKey, CBallot> m_results;
+
+    /**
+     * number of lookups which found a result
+     */
+    private long m_hits;
+
+    /**
+     * number of lookups which did not find a result
+     */
+    private long m_misses;
+
+    /**
+     * constructor
+     *
+     * @param p_capacity maximal number of results
+     */
+    public CResultCache( final int p_capacity )
+    {
+        if ( p_capacity < 1 )
+            throw new IllegalArgumentException( "capacity must be positive" );
+
+        m_results = new LinkedHashMap<CKey, CBallot>( 16, 0.75f, true )
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<CKey, CBallot> p_eldest )
+            {
+                return this.size() > p_capacity;
+            }
+        };
+    }
+
+    /**
+     * return cached result or compute and store it
+     *
+     * @param p_rule name of the voting rule
+     * @param p_profile profile
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @param p_compute computation of the result, which is called if the result is not cached
+     * @return result
+     */
+    public CBallot get( final String p_rule, final CProfile p_profile, final int p_altNum, final int p_comSize, final Supplier<CBallot> p_compute )
+    {
+        return this.get( p_rule, p_profile.fingerprint(), p_altNum, p_comSize, p_compute );
+    }
+
+    /**
+     * return cached result or compute and store it for a precomputed fingerprint
+     *
+     * @param p_rule name of the voting rule
+     * @param p_fingerprint canonical fingerprint of the profile, must not be changed afterwards
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @param p_compute computation of the result, which is called if the result is not cached
+     * @return result
+     */
+    public CBallot get( final String p_rule, final long[] p_fingerprint, final int p_altNum, final int p_comSize, final Supplier<CBallot> p_compute )
+    {
+        final CKey l_key = new CKey( p_rule, p_altNum, p_comSize, p_fingerprint );
+
+        synchronized ( this )
+        {
+            final CBallot l_result = m_results.get( l_key );
+            if ( l_result != null )
+            {
+                m_hits++;
+                return l_result;
+            }
+            m_misses++;
+        }
+
+        final CBallot l_result = p_compute.get();
+        synchronized ( this )
+        {
+            m_results.put( l_key, l_result );
+        }
+        return l_result;
+    }
+
+    /**
+     * return number of cached results
+     *
+     * @return number of results
+     */
+    public synchronized int size()
+    {
+        return m_results.size();
+    }
+
+    /**
+     * return number of lookups which found a result
+     *
+     * @return number of hits
+     */
+    public synchronized long hits()
+    {
+        return m_hits;
+    }
+
+    /**
+     * return number of lookups which did not find a result
+     *
+     * @return number of misses
+     */
+    public synchronized long misses()
+    {
+        return m_misses;
+    }
+
+    /**
+     * return fraction of lookups which found a result
+     *
+     * @return hit rate between 0 and 1, 0 without lookups
+     */
+    public synchronized double hitRate()
+    {
+        return m_hits + m_misses == 0 ? 0 : (double) m_hits / ( m_hits + m_misses );
+    }
+
+    /**
+     * remove all results and reset the counters
+     */
+    public synchronized void clear()
+    {
+        m_results.clear();
+        m_hits = 0;
+        m_misses = 0;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "results " + m_results.size() + ", hits " + m_hits + ", misses " + m_misses;
+    }
+
+    /**
+     * key of a cached result
+     */
+    private static final class CKey
+    {
+        private final String m_rule;
+
+        private final int m_altNum;
+
+        private final int m_comSize;
+
+        private final long[] m_fingerprint;
+
+        private final int m_hash;
+
+        /**
+         * constructor
+         *
+         * @param p_rule name of the voting rule
+         * @param p_altNum number of alternatives
+         * @param p_comSize committee size
+         * @param p_fingerprint canonical fingerprint of the profile
+         */
+        CKey( final String p_rule, final int p_altNum, final int p_comSize, final long[] p_fingerprint )
+        {
+            m_rule = p_rule;
+            m_altNum = p_altNum;
+            m_comSize = p_comSize;
+            m_fingerprint = p_fingerprint;
+            m_hash = ( ( p_rule.hashCode() * 31 + p_altNum ) * 31 + p_comSize ) * 31 + Arrays.hashCode( p_fingerprint );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return m_hash;
+        }
+
+        @Override
+        public boolean equals( final Object p_object )
+        {
+            if ( !( p_object instanceof CKey ) )
+                return false;
+
+            final CKey l_key = (CKey) p_object;
+            return m_hash == l_key.m_hash && m_altNum == l_key.m_altNum && m_comSize == l_key.m_comSize
+                   && m_rule.equals( l_key.m_rule ) && Arrays.equals( m_fingerprint, l_key.m_fingerprint );
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * evaluation of several rules on the same profile in one pass. The histogram of distinct ballots is
+ * read once, the approval scores are tallied once and yield the Minisum Approval committee as well as
+ * the sum of distances of any committee, and the distances of the ballots to every winning committee
+ * are computed once, so that each winner is scored under every rule. Rules are the instances of
+ * CVotingRules, Minisum Approval, Minimax Approval and Proportional Approval Voting are computed on the
+ * shared tally and histogram, all other rules on a copy of the histogram.
+ */
+public final class CRuleEvaluation
+{
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * committee size
+     */
+    private final int m_comSize;
+
+    /**
+     * distinct ballots
+     */
+    private final CBallot[] m_ballots;
+
+    /**
+     * number of voters of each distinct ballot
+     */
+    private final int[] m_counts;
+
+    /**
+     * number of voters
+     */
+    private final int m_voters;
+
+    /**
+     * sum of the approvals of all voters
+     */
+    private final long m_approvals;
+
+    /**
+     * approval score of each alternative
+     */
+    private final int[] m_scores;
+
+    /**
+     * winning committee of each rule
+     */
+    private final Map<IVotingRule, CBallot> m_winners = new LinkedHashMap<>();
+
+    /**
+     * distances of the distinct ballots to the winning committee of each rule
+     */
+    private final Map<IVotingRule, int[]> m_distances = new LinkedHashMap<>();
+
+    /**
+     * constructor
+     *
+     * @param p_altNum number of alternatives
+     * @param p_profile profile
+     * @param p_comSize committee size
+     */
+    private CRuleEvaluation( final int p_altNum, final CProfile p_profile, final int p_comSize )
+    {
+        m_altNum = p_altNum;
+        m_comSize = p_comSize;
+        m_scores = new int[p_altNum];
+
+        synchronized ( p_profile )
+        {
+            m_ballots = new CBallot[p_profile.distinct()];
+            m_counts = new int[m_ballots.length];
+
+            int l_voters = 0;
+            long l_approvals = 0;
+            for ( int i = 0; i < m_ballots.length; i++ )
+            {
+                m_ballots[i] = p_profile.ballot( i );
+                m_counts[i] = p_profile.count( i );
+                l_voters += m_counts[i];
+                l_approvals += (long) m_counts[i] * m_ballots[i].cardinality();
+            }
+            m_voters = l_voters;
+            m_approvals = l_approvals;
+
+            if ( m_ballots.length >= CBitSlicedTally.MINBALLOTS )
+                CBitSlicedTally.tally( p_profile, p_altNum, m_scores );
+            else
+                for ( int i = 0; i < m_ballots.length; i++ )
+                    CMinisumApproval.tally( m_ballots[i], m_counts[i], p_altNum, m_scores );
+        }
+    }
+
+    /**
+     * evaluate rules on a profile
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile
+     * @param p_comSize committee size
+     * @param p_rules rules, e.g. of CVotingRules
+     * @return evaluation
+     */
+    public static CRuleEvaluation evaluate( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize,
+                                            final Collection<? extends IVotingRule> p_rules )
+    {
+        if ( p_comSize < 0 || p_comSize > p_alternatives.size() )
+            throw new IllegalArgumentException( "committee size must be between 0 and the number of alternatives" );
+
+        final CRuleEvaluation l_evaluation = new CRuleEvaluation( p_alternatives.size(), p_profile, p_comSize );
+        p_rules.forEach( i -> l_evaluation.m_winners.put( i, l_evaluation.elect( p_alternatives, i ) ) );
+        l_evaluation.m_winners.forEach( ( i, j ) -> l_evaluation.m_distances.put( i, l_evaluation.distances( j ) ) );
+        return l_evaluation;
+    }
+
+    /**
+     * compute the winning committee of a rule on the snapshot
+     *
+     * @param p_alternatives available alternatives
+     * @param p_rule rule
+     * @return committee
+     */
+    private CBallot elect( final List<String> p_alternatives, final IVotingRule p_rule )
+    {
+        if ( p_rule instanceof CMinisumApproval )
+            return CMinisumApproval.committee( m_scores, m_altNum, m_comSize );
+
+        if ( p_rule instanceof CMinimaxApproval )
+        {
+            final long[] l_votes = new long[m_ballots.length];
+            for ( int i = 0; i < l_votes.length; i++ )
+                l_votes[i] = m_ballots[i].mask();
+
+            CMinimaxApproval.validate( m_altNum, m_comSize );
+            return CBallot.of( ( (CMinimaxApproval) p_rule ).solve( l_votes, m_altNum, m_comSize ), m_altNum );
+        }
+
+        if ( p_rule instanceof CProportionalApproval )
+            return ( (CProportionalApproval) p_rule ).elect( m_ballots, m_counts, m_altNum, m_comSize );
+
+        final CProfile l_profile = new CProfile();
+        for ( int i = 0; i < m_ballots.length; i++ )
+            l_profile.add( m_ballots[i], m_counts[i] );
+        return p_rule.applyRule( p_alternatives, l_profile, m_comSize );
+    }
+
+    /**
+     * compute the distances of the distinct ballots to a committee, the row of an equal committee is shared
+     *
+     * @param p_committee committee
+     * @return distances
+     */
+    private int[] distances( final CBallot p_committee )
+    {
+        for ( final Map.Entry<IVotingRule, int[]> l_entry : m_distances.entrySet() )
+            if ( m_winners.get( l_entry.getKey() ).equals( p_committee ) )
+                return l_entry.getValue();
+
+        final int[] l_distances = new int[m_ballots.length];
+        for ( int i = 0; i < l_distances.length; i++ )
+            l_distances[i] = m_ballots[i].hammingDistance( p_committee );
+        return l_distances;
+    }
+
+    /**
+     * return evaluated rules
+     *
+     * @return rules
+     */
+    public Set<IVotingRule> rules()
+    {
+        return Collections.unmodifiableSet( m_winners.keySet() );
+    }
+
+    /**
+     * return winning committee of a rule
+     *
+     * @param p_rule rule
+     * @return committee
+     */
+    public CBallot winner( final IVotingRule p_rule )
+    {
+        final CBallot l_winner = m_winners.get( p_rule );
+        if ( l_winner == null )
+            throw new IllegalArgumentException( "rule " + p_rule.name() + " was not evaluated" );
+        return l_winner;
+    }
+
+    /**
+     * sum of the Hamming distances of the voters to the winning committee of a rule, which follows from
+     * the approval scores: every voter contributes |v| + k - 2 |v and C|
+     *
+     * @param p_rule rule
+     * @return sum of distances
+     */
+    public long sumHD( final IVotingRule p_rule )
+    {
+        final CBallot l_winner = this.winner( p_rule );
+
+        long l_common = 0;
+        for ( int i = 0; i < m_altNum; i++ )
+            if ( l_winner.get( i ) )
+                l_common += m_scores[i];
+
+        return m_approvals + (long) m_voters * m_comSize - 2 * l_common;
+    }
+
+    /**
+     * maximal Hamming distance of any voter to the winning committee of a rule
+     *
+     * @param p_rule rule
+     * @return maximal distance, -1 if there are no ballots
+     */
+    public int maxHD( final IVotingRule p_rule )
+    {
+        this.winner( p_rule );
+        return Arrays.stream( m_distances.get( p_rule ) ).max().orElse( -1 );
+    }
+
+    /**
+     * Hamming distance of a distinct ballot to the winning committee of a rule
+     *
+     * @param p_rule rule
+     * @param p_index index of the distinct ballot
+     * @return distance
+     */
+    public int distance( final IVotingRule p_rule, final int p_index )
+    {
+        this.winner( p_rule );
+        return m_distances.get( p_rule )[p_index];
+    }
+
+    /**
+     * return approval score of an alternative
+     *
+     * @param p_alternative index of alternative
+     * @return number of voters who approve the alternative
+     */
+    public int score( final int p_alternative )
+    {
+        return m_scores[p_alternative];
+    }
+
+    /**
+     * return number of distinct ballots
+     *
+     * @return number of distinct ballots
+     */
+    public int distinct()
+    {
+        return m_ballots.length;
+    }
+
+    /**
+     * return distinct ballot
+     *
+     * @param p_index index
+     * @return ballot
+     */
+    public CBallot ballot( final int p_index )
+    {
+        return m_ballots[p_index];
+    }
+
+    /**
+     * return number of voters of a distinct ballot
+     *
+     * @param p_index index
+     * @return number of voters
+     */
+    public int count( final int p_index )
+    {
+        return m_counts[p_index];
+    }
+
+    /**
+     * return number of voters
+     *
+     * @return number of voters
+     */
+    public int voters()
+    {
+        return m_voters;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder l_builder = new StringBuilder( "evaluation of " + m_voters + " voters (" + m_ballots.length + " distinct ballots):" );
+        m_winners.forEach( ( i, j ) -> l_builder.append( " " ).append( i.name() ).append( " " ).append( j )
+                                                .append( " sum " ).append( this.sumHD( i ) ).append( " max " ).append( this.maxHD( i ) ) );
+        return l_builder.toString();
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+
+/**
+ * cost-based rule selection, the candidates are ordered by preference, e.g. exact Minimax Approval,
+ * approximate Minimax Approval and Minisum Approval, and the first candidate whose estimated cost
+ * fits into the latency budget is applied. If no candidate fits, the last one is applied.
+ */
+public final class CRuleSelector implements IVotingRule
+{
+    /**
+     * estimated number of elementary operations per nanosecond
+     */
+    public static final double OPERATIONSPERNANOSECOND = 1;
+
+    /**
+     * budget in operations
+     */
+    private final double m_budget;
+
+    /**
+     * candidates ordered by preference
+     */
+    private final List<IVotingRule> m_candidates;
+
+    /**
+     * constructor
+     *
+     * @param p_latency latency budget of an election
+     * @param p_unit unit of the latency budget
+     * @param p_candidates candidates ordered by preference
+     */
+    public CRuleSelector( final long p_latency, final TimeUnit p_unit, final IVotingRule... p_candidates )
+    {
+        if ( p_candidates.length == 0 )
+            throw new IllegalArgumentException( "rule selector needs at least one candidate" );
+
+        m_budget = p_unit.toNanos( p_latency ) * OPERATIONSPERNANOSECOND;
+        m_candidates = Collections.unmodifiableList( Arrays.asList( p_candidates.clone() ) );
+    }
+
+    @Override
+    public String name()
+    {
+        return "AUTO";
+    }
+
+    @Override
+    public IVotingRule select( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        for ( final IVotingRule l_candidate : m_candidates )
+            if ( l_candidate.cost( p_ballots, p_altNum, p_comSize ) <= m_budget )
+                return l_candidate.select( p_ballots, p_altNum, p_comSize );
+
+        return m_candidates.get( m_candidates.size() - 1 ).select( p_ballots, p_altNum, p_comSize );
+    }
+
+    @Override
+    public CBallot applyRule( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize )
+    {
+        return this.select( p_profile.distinct(), p_alternatives.size(), p_comSize ).applyRule( p_alternatives, p_profile, p_comSize );
+    }
+
+    @Override
+    public double cost( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        return this.select( p_ballots, p_altNum, p_comSize ).cost( p_ballots, p_altNum, p_comSize );
+    }
+
+    /**
+     * return candidates
+     *
+     * @return candidates ordered by preference
+     */
+    public List<IVotingRule> candidates()
+    {
+        return m_candidates;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "rule selector with budget of " + (long) m_budget + " operations over " + m_candidates.stream().map( IVotingRule::name ).collect( Collectors.toList() );
+    }
+}
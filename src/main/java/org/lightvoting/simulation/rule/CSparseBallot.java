@@ -0,0 +1,252 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Arrays;
+
+
+/**
+ * immutable sparse approval ballot, which stores the sorted indices of the approved alternatives.
+ * It is meant for large sets of alternatives of which every voter approves only a few, distances
+ * are computed by merging the sorted indices in O(number of approvals).
+ */
+public final class CSparseBallot
+{
+    /**
+     * sorted indices of the approved alternatives
+     */
+    private final int[] m_indices;
+
+    /**
+     * number of alternatives
+     */
+    private final int m_size;
+
+    /**
+     * cached hash
+     */
+    private final int m_hash;
+
+    /**
+     * constructor
+     *
+     * @param p_indices sorted distinct indices, which are owned by the ballot
+     * @param p_size number of alternatives
+     */
+    private CSparseBallot( final int[] p_indices, final int p_size )
+    {
+        m_indices = p_indices;
+        m_size = p_size;
+        m_hash = 31 * Arrays.hashCode( p_indices ) + p_size;
+    }
+
+    /**
+     * create ballot from indices of approved alternatives
+     *
+     * @param p_indices indices in any order, duplicates are ignored
+     * @param p_size number of alternatives
+     * @return ballot
+     */
+    public static CSparseBallot of( final int[] p_indices, final int p_size )
+    {
+        final int[] l_indices = p_indices.clone();
+        Arrays.sort( l_indices );
+
+        int l_length = 0;
+        for ( int i = 0; i < l_indices.length; i++ )
+        {
+            if ( l_indices[i] < 0 || l_indices[i] >= p_size )
+                throw new IllegalArgumentException( "alternative " + l_indices[i] + " is not between 0 and " + ( p_size - 1 ) );
+            if ( l_length == 0 || l_indices[l_length - 1] != l_indices[i] )
+                l_indices[l_length++] = l_indices[i];
+        }
+
+        return new CSparseBallot( Arrays.copyOf( l_indices, l_length ), p_size );
+    }
+
+    /**
+     * create ballot from a dense ballot
+     *
+     * @param p_ballot dense ballot
+     * @return ballot
+     */
+    public static CSparseBallot of( final CBallot p_ballot )
+    {
+        final int[] l_indices = new int[p_ballot.cardinality()];
+        int l_length = 0;
+
+        for ( int j = 0; j < p_ballot.words(); j++ )
+            for ( long l_rest = p_ballot.word( j ); l_rest != 0; l_rest &= l_rest - 1 )
+                l_indices[l_length++] = ( j << 6 ) + Long.numberOfTrailingZeros( l_rest );
+
+        return new CSparseBallot( l_indices, p_ballot.size() );
+    }
+
+    /**
+     * create ballot which takes over sorted distinct indices without copying them
+     *
+     * @param p_indices sorted distinct indices
+     * @param p_size number of alternatives
+     * @return ballot
+     */
+    static CSparseBallot wrap( final int[] p_indices, final int p_size )
+    {
+        return new CSparseBallot( p_indices, p_size );
+    }
+
+    /**
+     * return number of alternatives
+     *
+     * @return number of alternatives
+     */
+    public int size()
+    {
+        return m_size;
+    }
+
+    /**
+     * return number of approved alternatives
+     *
+     * @return cardinality
+     */
+    public int cardinality()
+    {
+        return m_indices.length;
+    }
+
+    /**
+     * return index of an approved alternative
+     *
+     * @param p_position position between 0 and the cardinality
+     * @return index of the alternative, the indices are increasing with the position
+     */
+    public int index( final int p_position )
+    {
+        return m_indices[p_position];
+    }
+
+    /**
+     * check if an alternative is approved
+     *
+     * @param p_alternative index of alternative
+     * @return true if approved
+     */
+    public boolean get( final int p_alternative )
+    {
+        return Arrays.binarySearch( m_indices, p_alternative ) >= 0;
+    }
+
+    /**
+     * Hamming distance, i.e. the number of alternatives which are approved by exactly one of the ballots
+     *
+     * @param p_ballot other ballot
+     * @return Hamming distance
+     */
+    public int hammingDistance( final CSparseBallot p_ballot )
+    {
+        return m_indices.length + p_ballot.m_indices.length - 2 * this.intersectCount( p_ballot );
+    }
+
+    /**
+     * number of alternatives which are approved by both ballots, by merging the sorted indices
+     *
+     * @param p_ballot other ballot
+     * @return size of the intersection
+     */
+    public int intersectCount( final CSparseBallot p_ballot )
+    {
+        return intersectCount( m_indices, 0, m_indices.length, p_ballot );
+    }
+
+    /**
+     * number of alternatives of a ballot which are contained in a sorted range of indices
+     *
+     * @param p_first sorted indices
+     * @param p_from start of the range
+     * @param p_to end of the range
+     * @param p_ballot ballot
+     * @return size of the intersection
+     */
+    static int intersectCount( final int[] p_first, final int p_from, final int p_to, final CSparseBallot p_ballot )
+    {
+        final int[] l_second = p_ballot.m_indices;
+        int l_count = 0;
+        int i = p_from;
+        int j = 0;
+
+        while ( i < p_to && j < l_second.length )
+            if ( p_first[i] < l_second[j] )
+                i++;
+            else if ( p_first[i] > l_second[j] )
+                j++;
+            else
+            {
+                l_count++;
+                i++;
+                j++;
+            }
+
+        return l_count;
+    }
+
+    /**
+     * convert into a dense ballot
+     *
+     * @return dense ballot
+     */
+    public CBallot toBallot()
+    {
+        final long[] l_words = new long[CBallot.words( m_size )];
+        for ( int i = 0; i < m_indices.length; i++ )
+            l_words[m_indices[i] >>> 6] |= 1L << m_indices[i];
+        return CBallot.wrap( l_words, m_size );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return m_hash;
+    }
+
+    @Override
+    public boolean equals( final Object p_object )
+    {
+        if ( this == p_object )
+            return true;
+        if ( !( p_object instanceof CSparseBallot ) )
+            return false;
+
+        final CSparseBallot l_ballot = (CSparseBallot) p_object;
+        return m_hash == l_ballot.m_hash && m_size == l_ballot.m_size && Arrays.equals( m_indices, l_ballot.m_indices );
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder l_builder = new StringBuilder( "{" );
+        for ( int i = 0; i < m_indices.length; i++ )
+            l_builder.append( i == 0 ? "" : ", " ).append( m_indices[i] );
+        return l_builder.append( "}" ).toString();
+    }
+}
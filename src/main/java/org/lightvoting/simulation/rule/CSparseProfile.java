@@ -0,0 +1,213 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+
+/**
+ * immutable sparse profile in compressed sparse row format. The approved alternatives of all ballots
+ * are stored in one index array, row i covers the positions from offset i to offset i + 1. Every row
+ * has a weight, which is the number of voters of the ballot.
+ */
+public final class CSparseProfile
+{
+    /**
+     * number of alternatives
+     */
+    private final int m_altNum;
+
+    /**
+     * start position of each row in the index array, the last entry is the number of approvals
+     */
+    private final int[] m_offsets;
+
+    /**
+     * sorted indices of the approved alternatives of all rows
+     */
+    private final int[] m_indices;
+
+    /**
+     * number of voters of each row
+     */
+    private final int[] m_counts;
+
+    /**
+     * constructor
+     *
+     * @param p_altNum number of alternatives
+     * @param p_offsets row offsets
+     * @param p_indices indices
+     * @param p_counts row weights
+     */
+    private CSparseProfile( final int p_altNum, final int[] p_offsets, final int[] p_indices, final int[] p_counts )
+    {
+        m_altNum = p_altNum;
+        m_offsets = p_offsets;
+        m_indices = p_indices;
+        m_counts = p_counts;
+    }
+
+    /**
+     * create profile with one row for each ballot
+     *
+     * @param p_altNum number of alternatives
+     * @param p_ballots ballots
+     * @return profile
+     */
+    public static CSparseProfile of( final int p_altNum, final Collection<CSparseBallot> p_ballots )
+    {
+        final int[] l_offsets = new int[p_ballots.size() + 1];
+        int l_row = 0;
+        for ( final CSparseBallot l_ballot : p_ballots )
+        {
+            l_offsets[l_row + 1] = l_offsets[l_row] + l_ballot.cardinality();
+            l_row++;
+        }
+
+        final int[] l_indices = new int[l_offsets[l_row]];
+        l_row = 0;
+        for ( final CSparseBallot l_ballot : p_ballots )
+        {
+            for ( int i = 0; i < l_ballot.cardinality(); i++ )
+                l_indices[l_offsets[l_row] + i] = l_ballot.index( i );
+            l_row++;
+        }
+
+        final int[] l_counts = new int[p_ballots.size()];
+        Arrays.fill( l_counts, 1 );
+
+        return new CSparseProfile( p_altNum, l_offsets, l_indices, l_counts );
+    }
+
+    /**
+     * create profile from the distinct ballots of a compressed profile
+     *
+     * @param p_altNum number of alternatives
+     * @param p_profile compressed profile
+     * @return profile
+     */
+    public static CSparseProfile of( final int p_altNum, final CProfile p_profile )
+    {
+        final CSparseBallot[] l_ballots = new CSparseBallot[p_profile.distinct()];
+        final int[] l_counts = new int[l_ballots.length];
+        final int[] l_offsets = new int[l_ballots.length + 1];
+
+        for ( int i = 0; i < l_ballots.length; i++ )
+        {
+            l_ballots[i] = CSparseBallot.of( p_profile.ballot( i ) );
+            l_counts[i] = p_profile.count( i );
+            l_offsets[i + 1] = l_offsets[i] + l_ballots[i].cardinality();
+        }
+
+        final int[] l_indices = new int[l_offsets[l_ballots.length]];
+        for ( int i = 0; i < l_ballots.length; i++ )
+            for ( int j = 0; j < l_ballots[i].cardinality(); j++ )
+                l_indices[l_offsets[i] + j] = l_ballots[i].index( j );
+
+        return new CSparseProfile( p_altNum, l_offsets, l_indices, l_counts );
+    }
+
+    /**
+     * return number of alternatives
+     *
+     * @return number of alternatives
+     */
+    public int alternatives()
+    {
+        return m_altNum;
+    }
+
+    /**
+     * return number of rows
+     *
+     * @return number of rows
+     */
+    public int rows()
+    {
+        return m_counts.length;
+    }
+
+    /**
+     * return number of voters of a row
+     *
+     * @param p_row row
+     * @return number of voters
+     */
+    public int count( final int p_row )
+    {
+        return m_counts[p_row];
+    }
+
+    /**
+     * return ballot of a row
+     *
+     * @param p_row row
+     * @return ballot
+     */
+    public CSparseBallot ballot( final int p_row )
+    {
+        return CSparseBallot.wrap( Arrays.copyOfRange( m_indices, m_offsets[p_row], m_offsets[p_row + 1] ), m_altNum );
+    }
+
+    /**
+     * add weighted approval scores of all rows in O(number of approvals)
+     *
+     * @param p_scores score vector
+     */
+    public void tally( final int[] p_scores )
+    {
+        for ( int l_row = 0; l_row < m_counts.length; l_row++ )
+            for ( int i = m_offsets[l_row]; i < m_offsets[l_row + 1]; i++ )
+                p_scores[m_indices[i]] += m_counts[l_row];
+    }
+
+    /**
+     * Hamming distance between a row and a ballot by merging the sorted indices
+     *
+     * @param p_row row
+     * @param p_ballot ballot
+     * @return Hamming distance
+     */
+    public int distance( final int p_row, final CSparseBallot p_ballot )
+    {
+        return m_offsets[p_row + 1] - m_offsets[p_row] + p_ballot.cardinality()
+               - 2 * CSparseBallot.intersectCount( m_indices, m_offsets[p_row], m_offsets[p_row + 1], p_ballot );
+    }
+
+    /**
+     * maximal Hamming distance between the rows and a ballot
+     *
+     * @param p_ballot ballot
+     * @return maximal Hamming distance, -1 without rows
+     */
+    public int maxDistance( final CSparseBallot p_ballot )
+    {
+        int l_maxHD = -1;
+        for ( int l_row = 0; l_row < m_counts.length; l_row++ )
+            l_maxHD = Math.max( l_maxHD, this.distance( l_row, p_ballot ) );
+        return l_maxHD;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * registry of the voting rules by name, the registered instances are shared by all chairs
+ */
+public final class CVotingRules
+{
+    /**
+     * name of the automatic rule selection
+     */
+    public static final String AUTO = "AUTO";
+
+    /**
+     * registered rules by name
+     */
+    private static final Map<String, IVotingRule> RULES = new ConcurrentHashMap<>();
+
+    /**
+     * parallel Minimax Approval rules by number of workers
+     */
+    private static final Map<Integer, IVotingRule> PARALLEL = new ConcurrentHashMap<>();
+
+    static
+    {
+        register( new CMinisumApproval() );
+        register( new CMinimaxApproval() );
+        register( new CApproximateMinimaxApproval() );
+        register( new CProportionalApproval() );
+    }
+
+    /**
+     * constructor
+     */
+    private CVotingRules()
+    {
+    }
+
+    /**
+     * register rule
+     *
+     * @param p_rule rule
+     */
+    public static void register( final IVotingRule p_rule )
+    {
+        final String l_name = p_rule.name().toUpperCase( Locale.ROOT );
+        if ( AUTO.equals( l_name ) || RULES.putIfAbsent( l_name, p_rule ) != null )
+            throw new IllegalArgumentException( "voting rule " + l_name + " is already registered" );
+    }
+
+    /**
+     * return registered rule
+     *
+     * @param p_name name of the rule
+     * @return rule
+     */
+    public static IVotingRule get( final String p_name )
+    {
+        final IVotingRule l_rule = RULES.get( p_name.toUpperCase( Locale.ROOT ) );
+        if ( l_rule == null )
+            throw new IllegalArgumentException( "unknown voting rule " + p_name + ", registered rules are " + names() );
+        return l_rule;
+    }
+
+    /**
+     * return names of the registered rules
+     *
+     * @return names
+     */
+    public static Set<String> names()
+    {
+        return Collections.unmodifiableSet( new TreeSet<>( RULES.keySet() ) );
+    }
+
+    /**
+     * return rule according to the configuration. Minimax Approval is evaluated in parallel if more
+     * than one worker is configured, the automatic selection prefers exact Minimax Approval, then
+     * approximate Minimax Approval and falls back to Minisum Approval to stay within the latency budget.
+     *
+     * @param p_name name of the rule or AUTO
+     * @param p_parallelism number of workers of Minimax Approval
+     * @param p_latency latency budget of an election for the automatic selection
+     * @param p_unit unit of the latency budget
+     * @return rule
+     */
+    public static IVotingRule of( final String p_name, final int p_parallelism, final long p_latency, final TimeUnit p_unit )
+    {
+        if ( AUTO.equalsIgnoreCase( p_name ) )
+            return new CRuleSelector( p_latency, p_unit, minimax( p_parallelism ), get( "APPROXIMATEMINIMAX" ), get( "MINISUM" ) );
+
+        if ( "MINIMAX".equalsIgnoreCase( p_name ) )
+            return minimax( p_parallelism );
+
+        return get( p_name );
+    }
+
+    /**
+     * return shared Minimax Approval rule
+     *
+     * @param p_parallelism number of workers
+     * @return rule
+     */
+    private static IVotingRule minimax( final int p_parallelism )
+    {
+        return p_parallelism > 1 ? PARALLEL.computeIfAbsent( p_parallelism, CMinimaxApproval::new ) : get( "MINIMAX" );
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+
+/**
+ * stateful election of a voting rule, which keeps its result up to date while ballots are added or removed
+ */
+public interface IElection
+{
+    /**
+     * add ballot
+     *
+     * @param p_vote vote
+     */
+    void add( final CBallot p_vote );
+
+    /**
+     * remove ballot
+     *
+     * @param p_vote vote
+     */
+    void remove( final CBallot p_vote );
+
+    /**
+     * remove all ballots
+     */
+    void clear();
+
+    /**
+     * return number of ballots
+     *
+     * @return number of ballots
+     */
+    int size();
+
+    /**
+     * return current winning committee
+     *
+     * @return committee
+     */
+    CBallot result();
+}
@@ -0,0 +1,86 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.List;
+
+
+/**
+ * committee voting rule, implementations are stateless or thread-safe, so that a single
+ * instance can be shared by all chairs and elections
+ */
+public interface IVotingRule
+{
+    /**
+     * return name of the rule, rules with the same name return the same committees
+     *
+     * @return name
+     */
+    String name();
+
+    /**
+     * compute the winning committee on a compressed profile
+     *
+     * @param p_alternatives available alternatives
+     * @param p_profile profile of distinct ballots
+     * @param p_comSize size of committee to be elected
+     * @return elected committee
+     */
+    CBallot applyRule( final List<String> p_alternatives, final CProfile p_profile, final int p_comSize );
+
+    /**
+     * estimate the number of elementary operations of an election in the worst case
+     *
+     * @param p_ballots number of distinct ballots
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return estimated number of operations, infinity if the rule cannot be applied
+     */
+    double cost( final int p_ballots, final int p_altNum, final int p_comSize );
+
+    /**
+     * select the rule which is applied to a profile, a selector returns one of its candidates
+     *
+     * @param p_ballots number of distinct ballots
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return rule
+     */
+    default IVotingRule select( final int p_ballots, final int p_altNum, final int p_comSize )
+    {
+        return this;
+    }
+
+    /**
+     * create a stateful election of the rule
+     *
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return election or null if the rule has no incremental election of this size
+     */
+    default IElection election( final int p_altNum, final int p_comSize )
+    {
+        return null;
+    }
+}
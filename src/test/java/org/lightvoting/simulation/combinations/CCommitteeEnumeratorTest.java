@@ -0,0 +1,172 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.combinations;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ * Unit test for CCommitteeEnumerator.
+ */
+public final class CCommitteeEnumeratorTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CCommitteeEnumeratorTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CCommitteeEnumeratorTest.class );
+    }
+
+    /**
+     * test that all committees are enumerated exactly once in rank order
+     */
+    public void testEnumeration()
+    {
+        final CCommitteeEnumerator l_enumerator = new CCommitteeEnumerator( 10, 4 );
+        final Set<Long> l_committees = new HashSet<>();
+
+        long l_rank = 0;
+        while ( l_enumerator.hasNext() )
+        {
+            final long l_committee = l_enumerator.nextLong();
+
+            assertEquals( 4, Long.bitCount( l_committee ) );
+            assertEquals( 0, l_committee >>> 10 );
+            assertEquals( l_rank, CCommitteeEnumerator.rank( l_committee ) );
+            assertEquals( l_committee, CCommitteeEnumerator.unrank( l_rank, 4 ) );
+            assertTrue( l_committees.add( l_committee ) );
+            l_rank++;
+        }
+
+        assertEquals( CCommitteeEnumerator.binomial( 10, 4 ), l_committees.size() );
+        assertEquals( 210, l_committees.size() );
+    }
+
+    /**
+     * test that a range of the committee space starts at the unranked committee
+     */
+    public void testRange()
+    {
+        final CCommitteeEnumerator l_all = new CCommitteeEnumerator( 12, 5 );
+        for ( int i = 0; i < 100; i++ )
+            l_all.nextLong();
+
+        final CCommitteeEnumerator l_range = new CCommitteeEnumerator( 12, 5, 100, 150 );
+        int l_count = 0;
+        while ( l_range.hasNext() )
+        {
+            assertEquals( l_all.nextLong(), l_range.nextLong() );
+            l_count++;
+        }
+
+        assertEquals( 50, l_count );
+    }
+
+    /**
+     * test skipping of committees
+     */
+    public void testSkip()
+    {
+        final CCommitteeEnumerator l_enumerator = new CCommitteeEnumerator( 12, 5, 10, 100 );
+        l_enumerator.nextLong();
+        l_enumerator.skip( 30 );
+        assertEquals( CCommitteeEnumerator.unrank( 41, 5 ), l_enumerator.nextLong() );
+
+        l_enumerator.skip( 1000 );
+        assertFalse( l_enumerator.hasNext() );
+    }
+
+    /**
+     * test border cases of the mask width
+     */
+    public void testBorderCases()
+    {
+        final CCommitteeEnumerator l_full = new CCommitteeEnumerator( 64, 64 );
+        assertEquals( -1L, l_full.nextLong() );
+        assertFalse( l_full.hasNext() );
+
+        final CCommitteeEnumerator l_single = new CCommitteeEnumerator( 64, 1, 63, 64 );
+        assertEquals( Long.MIN_VALUE, l_single.nextLong() );
+        assertFalse( l_single.hasNext() );
+
+        final CCommitteeEnumerator l_empty = new CCommitteeEnumerator( 5, 0 );
+        assertEquals( 0, l_empty.nextLong() );
+        assertFalse( l_empty.hasNext() );
+
+        assertEquals( 1832624140942590534L, CCommitteeEnumerator.binomial( 64, 32 ) );
+    }
+
+    /**
+     * test full enumerations which use the highest bit of the mask
+     */
+    public void testHighestBit()
+    {
+        for ( final int l_comSize : new int[]{1, 2, 3, 63} )
+        {
+            final CCommitteeEnumerator l_enumerator = new CCommitteeEnumerator( 64, l_comSize );
+            final Set<Long> l_committees = new HashSet<>();
+            long l_last = 0;
+            while ( l_enumerator.hasNext() )
+            {
+                final long l_committee = l_enumerator.nextLong();
+                assertEquals( l_comSize, Long.bitCount( l_committee ) );
+                assertTrue( l_committees.add( l_committee ) );
+                l_last = l_committee;
+            }
+            assertEquals( CCommitteeEnumerator.binomial( 64, l_comSize ), l_committees.size() );
+            assertTrue( l_last < 0 );
+        }
+    }
+
+    /**
+     * test lexicographic tie-breaking
+     */
+    public void testPrecedes()
+    {
+        // {0, 1, 5} precedes {0, 2, 3}
+        assertTrue( CCommitteeEnumerator.precedes( 0b100011L, 0b001101L ) );
+        assertFalse( CCommitteeEnumerator.precedes( 0b001101L, 0b100011L ) );
+        assertFalse( CCommitteeEnumerator.precedes( 0b001101L, 0b001101L ) );
+        // {0, 63} precedes {1, 2}
+        assertTrue( CCommitteeEnumerator.precedes( Long.MIN_VALUE | 1L, 0b110L ) );
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.combinations;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+
+/**
+ * Unit test for CCommitteeSpace.
+ */
+public final class CCommitteeSpaceTest extends TestCase
+{
+
+    /**
+     * test that spaces are shared and match the enumerator
+     */
+    public void testShared()
+    {
+        final CCommitteeSpace l_space = CCommitteeSpace.of( 12, 5 );
+
+        assertSame( l_space, CCommitteeSpace.of( 12, 5 ) );
+        assertTrue( l_space.cached() );
+        assertEquals( CCommitteeEnumerator.binomial( 12, 5 ), l_space.size() );
+        assertEquals( l_space.size(), l_space.committees().length );
+
+        final CCommitteeEnumerator l_enumerator = new CCommitteeEnumerator( 12, 5 );
+        for ( long i = 0; i < l_space.size(); i++ )
+            assertEquals( l_enumerator.nextLong(), l_space.committee( i ) );
+    }
+
+    /**
+     * test ranges and skipping on cached and streamed spaces
+     */
+    public void testRanges()
+    {
+        final CCommitteeSpace l_cached = CCommitteeSpace.of( 20, 6 );
+        final CCommitteeSpace l_streamed = CCommitteeSpace.of( 40, 20 );
+
+        assertTrue( l_cached.cached() );
+        assertFalse( l_streamed.cached() );
+
+        for ( final CCommitteeSpace l_space : new CCommitteeSpace[]{l_cached, l_streamed} )
+        {
+            final CCommitteeEnumerator l_expected = new CCommitteeEnumerator( l_space.alternatives(), l_space.committeeSize(), 1000, 1100 );
+            final CCommitteeEnumerator l_actual = l_space.iterator( 1000, 1100 );
+
+            while ( l_expected.hasNext() )
+            {
+                assertTrue( l_actual.hasNext() );
+                assertEquals( l_expected.nextLong(), l_actual.nextLong() );
+                l_expected.skip( 7 );
+                l_actual.skip( 7 );
+            }
+            assertFalse( l_actual.hasNext() );
+
+            assertEquals( CCommitteeEnumerator.unrank( 1234, l_space.committeeSize() ), l_space.committee( 1234 ) );
+        }
+
+        try
+        {
+            l_streamed.committees();
+            fail();
+        }
+        catch ( final IllegalStateException l_exception )
+        {
+            assertTrue( l_streamed.toString().contains( "streamed" ) );
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.lightvoting.simulation.rule.CBallot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ * Unit test for CCommitteeIndex.
+ */
+public final class CCommitteeIndexTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CCommitteeIndexTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CCommitteeIndexTest.class );
+    }
+
+    /**
+     * test nearest queries against a linear scan while values are added, moved and removed
+     */
+    public void testNearest()
+    {
+        final Random l_random = new Random( 21 );
+        final CCommitteeIndex<Integer> l_index = new CCommitteeIndex<>();
+        final Map<Integer, CBallot> l_committees = new HashMap<>();
+
+        for ( int l_step = 0; l_step < 5000; l_step++ )
+        {
+            final int l_value = l_random.nextInt( 300 );
+            if ( l_random.nextInt( 3 ) == 0 )
+            {
+                assertEquals( l_committees.remove( l_value ) != null, l_index.remove( l_value ) );
+            }
+            else
+            {
+                final CBallot l_committee = CBallot.of( l_random.nextLong() & 0xFFFFF, 20 );
+                l_index.put( l_value, l_committee );
+                l_committees.put( l_value, l_committee );
+            }
+            assertEquals( l_committees.size(), l_index.size() );
+
+            final CBallot l_query = CBallot.of( l_random.nextLong() & 0xFFFFF, 20 );
+            final int l_radius = l_random.nextInt( 12 );
+
+            int l_expected = Integer.MAX_VALUE;
+            for ( final CBallot l_committee : l_committees.values() )
+                l_expected = Math.min( l_expected, l_committee.hammingDistance( l_query ) );
+
+            final Integer l_nearest = l_index.nearest( l_query, l_radius );
+            if ( l_expected > l_radius )
+                assertNull( l_nearest );
+            else
+                assertEquals( l_expected, l_committees.get( l_nearest ).hammingDistance( l_query ) );
+        }
+    }
+
+    /**
+     * test that values with the same committee share a node and are returned in insertion order
+     */
+    public void testShared()
+    {
+        final CCommitteeIndex<String> l_index = new CCommitteeIndex<>();
+        l_index.put( "first", CBallot.of( 0b0111, 6 ) );
+        l_index.put( "second", CBallot.of( 0b0111, 6 ) );
+        l_index.put( "third", CBallot.of( 0b111000, 6 ) );
+
+        assertEquals( "first", l_index.nearest( CBallot.of( 0b0011, 6 ), 1 ) );
+        assertNull( l_index.nearest( CBallot.of( 0b0011, 6 ), 0 ) );
+
+        l_index.remove( "first" );
+        assertEquals( "second", l_index.nearest( CBallot.of( 0b0011, 6 ), 1 ) );
+
+        l_index.put( "second", CBallot.of( 0b111000, 6 ) );
+        assertEquals( "third", l_index.nearest( CBallot.of( 0b011000, 6 ), 6 ) );
+        assertNull( l_index.nearest( CBallot.of( 0b0111, 6 ), 5 ) );
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.lightjason.agentspeak.configuration.CDefaultAgentConfiguration;
+import org.lightvoting.simulation.agent.CChairAgent;
+import org.lightvoting.simulation.agent.CVotingAgent;
+
+
+/**
+ * Unit test for CEnvironment.
+ */
+public final class CEnvironmentTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CEnvironmentTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CEnvironmentTest.class );
+    }
+
+    /**
+     * test that the group of a chair is found while the group is open, closed and reopened and is released by the archive
+     */
+    public void testChairGroups()
+    {
+        final CEnvironment l_environment = new CEnvironment( 4, "foo.h5", 3 );
+        final CChairAgent l_first = this.chair( l_environment );
+        final CChairAgent l_second = this.chair( l_environment );
+        final CVotingAgent l_founder = this.agent( l_environment, l_first );
+        final CVotingAgent l_joining = this.agent( l_environment, l_second );
+
+        // agents which are woken up by the environment
+        l_environment.initialset( l_founder );
+        l_environment.initialset( l_joining );
+        l_environment.initialset( this.agent( l_environment, l_first ) );
+        l_environment.initialset( this.agent( l_environment, l_second ) );
+
+        assertNull( l_environment.detectGroup( l_first ) );
+
+        final CGroup l_group = l_environment.openNewGroupCoordinated( l_founder );
+        assertSame( l_group, l_environment.detectGroup( l_first ) );
+        assertNull( l_environment.detectGroup( l_second ) );
+
+        // first election, the group is reopened and closed by the joining agent
+        assertTrue( l_group.startProgress() );
+        assertTrue( l_group.reset() );
+        l_environment.reopen( l_group );
+        assertTrue( l_group.open() );
+        assertSame( l_group, l_environment.detectGroup( l_first ) );
+
+        assertTrue( l_environment.addAgentCoordinated( l_group, l_joining ) );
+        assertFalse( l_group.open() );
+        assertSame( l_group, l_environment.detectGroup( l_first ) );
+        assertNull( l_environment.detectGroup( l_second ) );
+
+        // a group which is not final is not archived
+        assertFalse( l_environment.archive( l_group ) );
+        assertSame( l_group, l_environment.detectGroup( l_first ) );
+
+        assertTrue( l_group.startProgress() );
+        assertTrue( l_group.reset() );
+        assertTrue( l_group.finish() );
+        assertTrue( l_environment.archive( l_group ) );
+        assertNull( l_environment.detectGroup( l_first ) );
+        assertFalse( l_environment.archive( l_group ) );
+    }
+
+    /**
+     * create chair agent
+     *
+     * @param p_environment environment
+     * @return chair
+     */
+    private CChairAgent chair( final CEnvironment p_environment )
+    {
+        return new CChairAgent( "chair", new CDefaultAgentConfiguration<>(), p_environment, "COORDINATED", "BASIC", "foo.h5" );
+    }
+
+    /**
+     * create voting agent
+     *
+     * @param p_environment environment
+     * @param p_chair chair
+     * @return voting agent
+     */
+    private CVotingAgent agent( final CEnvironment p_environment, final CChairAgent p_chair )
+    {
+        return new CVotingAgent( "agent", new CDefaultAgentConfiguration<>(), p_chair, p_environment, 6, "COORDINATED", "foo.h5" );
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Unit test for CGroupArchive.
+ */
+public final class CGroupArchiveTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CGroupArchiveTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CGroupArchiveTest.class );
+    }
+
+    /**
+     * test that records are buffered and appended in blocks
+     */
+    public void testBlocks()
+    {
+        final List<Long> l_offsets = new ArrayList<>();
+        final CGroupArchive l_archive = new CGroupArchive( "foo.h5", ( i, j, k, l, m, n ) ->
+        {
+            assertEquals( CGroupArchive.DATASET, j );
+            assertEquals( 5, l );
+            l_offsets.add( n );
+            return true;
+        }, Runnable::run );
+
+        for ( int i = 0; i < CGroupArchive.BLOCKSIZE - 1; i++ )
+            l_archive.add( new int[]{i, 3, 1, 0, 1} );
+        assertEquals( 0, l_archive.rows() );
+        assertEquals( CGroupArchive.BLOCKSIZE - 1, l_archive.pending() );
+
+        l_archive.add( new int[]{CGroupArchive.BLOCKSIZE, 3, 0, 1, 1} );
+        assertEquals( CGroupArchive.BLOCKSIZE, l_archive.rows() );
+        assertEquals( 0, l_archive.pending() );
+
+        l_archive.add( new int[]{0, 0, 0, 0, 0} );
+        assertTrue( l_archive.flush() );
+        assertEquals( CGroupArchive.BLOCKSIZE + 1, l_archive.rows() );
+        assertEquals( 0, l_archive.pending() );
+        assertEquals( Arrays.asList( 0L, (long) CGroupArchive.BLOCKSIZE ), l_offsets );
+    }
+
+    /**
+     * test that records are kept when an append fails and the dataset is created by the next append
+     */
+    public void testFailure()
+    {
+        final AtomicBoolean l_fail = new AtomicBoolean( true );
+        final List<Long> l_offsets = new ArrayList<>();
+        final List<int[]> l_written = new ArrayList<>();
+        final CGroupArchive l_archive = new CGroupArchive( "foo.h5", ( i, j, k, l, m, n ) ->
+        {
+            l_offsets.add( n );
+            if ( l_fail.get() )
+                return false;
+
+            for ( int o = 0; o < k.length; o += l )
+                l_written.add( Arrays.copyOfRange( k, o, o + l ) );
+            return true;
+        }, Runnable::run );
+
+        l_archive.add( new int[]{0, 3, 1} );
+        l_archive.add( new int[]{1, 2, 0} );
+        assertFalse( l_archive.flush() );
+        assertEquals( 0, l_archive.rows() );
+        assertEquals( 2, l_archive.pending() );
+
+        l_archive.add( new int[]{2, 1, 1} );
+        assertFalse( l_archive.flush() );
+        assertEquals( 3, l_archive.pending() );
+
+        l_fail.set( false );
+        assertTrue( l_archive.flush() );
+        assertEquals( 3, l_archive.rows() );
+        assertEquals( 0, l_archive.pending() );
+        assertEquals( Arrays.asList( 0L, 0L, 0L ), l_offsets );
+        for ( int i = 0; i < 3; i++ )
+            assertEquals( i, l_written.get( i )[0] );
+
+        l_archive.add( new int[]{3, 1, 0} );
+        assertTrue( l_archive.flush() );
+        assertEquals( 3L, (long) l_offsets.get( 3 ) );
+        assertEquals( 4, l_archive.rows() );
+    }
+
+    /**
+     * test that a full block is handed to the writer once and not written by the adding thread
+     */
+    public void testWriter()
+    {
+        final List<Runnable> l_writes = new ArrayList<>();
+        final CGroupArchive l_archive = new CGroupArchive( "foo.h5", ( i, j, k, l, m, n ) -> true, l_writes::add );
+
+        for ( int i = 0; i < CGroupArchive.BLOCKSIZE + 10; i++ )
+            l_archive.add( new int[]{i, 1} );
+        assertEquals( 1, l_writes.size() );
+        assertEquals( 0, l_archive.rows() );
+        assertEquals( CGroupArchive.BLOCKSIZE + 10, l_archive.pending() );
+
+        l_writes.get( 0 ).run();
+        assertEquals( CGroupArchive.BLOCKSIZE + 10, l_archive.rows() );
+
+        // the next full block schedules the next write
+        for ( int i = 0; i < CGroupArchive.BLOCKSIZE; i++ )
+            l_archive.add( new int[]{i, 1} );
+        assertEquals( 2, l_writes.size() );
+    }
+
+    /**
+     * test that all records have the width of the first record
+     */
+    public void testWidth()
+    {
+        final CGroupArchive l_archive = new CGroupArchive( "foo.h5", ( i, j, k, l, m, n ) -> true, Runnable::run );
+        l_archive.add( new int[]{0, 1, 1} );
+
+        try
+        {
+            l_archive.add( new int[]{1, 1, 1, 0} );
+            fail();
+        }
+        catch ( final IllegalArgumentException l_exception )
+        {
+            assertEquals( 1, l_archive.pending() );
+        }
+    }
+}
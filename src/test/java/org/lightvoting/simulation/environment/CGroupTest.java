@@ -0,0 +1,225 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.environment;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import org.lightjason.agentspeak.configuration.CDefaultAgentConfiguration;
+import org.lightvoting.simulation.agent.CChairAgent;
+import org.lightvoting.simulation.agent.CVotingAgent;
+import org.lightvoting.simulation.rule.CBallot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Unit test for CGroup.
+ */
+public final class CGroupTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CGroupTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CGroupTest.class );
+    }
+
+    /**
+     * test lifecycle of a random group
+     */
+    public void testRandomLifecycle()
+    {
+        final CEnvironment l_environment = new CEnvironment( 3, "foo.h5" );
+        final CChairAgent l_chair = this.chair( l_environment );
+        final CVotingAgent l_first = this.agent( l_environment, l_chair );
+        final CVotingAgent l_second = this.agent( l_environment, l_chair );
+        final CGroup l_group = new CGroup( l_first, "RANDOM", 2 );
+
+        assertEquals( EGroupState.OPEN, l_group.state() );
+        assertFalse( l_group.startProgress() );
+
+        assertTrue( l_group.addRandom( l_second ) );
+        assertEquals( EGroupState.FULL, l_group.state() );
+        assertFalse( l_group.open() );
+        assertFalse( l_group.addRandom( this.agent( l_environment, l_chair ) ) );
+        assertEquals( 2, l_group.size() );
+
+        assertTrue( l_group.startProgress() );
+        assertFalse( l_group.startProgress() );
+        assertTrue( l_group.electionInProgress() );
+
+        assertTrue( l_group.reset() );
+        assertEquals( EGroupState.RESULT, l_group.state() );
+        assertFalse( l_group.reopen() );
+
+        assertTrue( l_group.makeReady() );
+        assertTrue( l_group.startProgress() );
+        assertTrue( l_group.reset() );
+        assertTrue( l_group.finish() );
+        assertEquals( EGroupState.FINAL, l_group.state() );
+        assertFalse( l_group.makeReady() );
+    }
+
+    /**
+     * test that only one agent joins a reopened coordinated group and members are found by id
+     */
+    public void testCoordinatedJoin()
+    {
+        final CEnvironment l_environment = new CEnvironment( 3, "foo.h5" );
+        final CChairAgent l_chair = this.chair( l_environment );
+        final CVotingAgent l_first = this.agent( l_environment, l_chair );
+        final CVotingAgent l_second = this.agent( l_environment, l_chair );
+        final CVotingAgent l_third = this.agent( l_environment, l_chair );
+        final CGroup l_group = new CGroup( l_first, "COORDINATED", 3 );
+
+        assertEquals( EGroupState.FULL, l_group.state() );
+        assertFalse( l_group.addCoordinated( l_second ) );
+
+        assertTrue( l_group.startProgress() );
+        assertTrue( l_group.reset() );
+        assertTrue( l_group.reopen() );
+        assertTrue( l_group.open() );
+
+        assertTrue( l_group.addCoordinated( l_second ) );
+        assertFalse( l_group.addCoordinated( l_third ) );
+        assertEquals( EGroupState.FULL, l_group.state() );
+        assertEquals( 2, l_group.size() );
+
+        assertSame( l_second, l_group.determineAgent( l_second.id() ) );
+        assertNull( l_group.determineAgent( l_third.id() ) );
+
+        l_group.remove( l_first );
+        assertFalse( l_group.contains( l_first ) );
+        assertSame( l_second, l_group.determineAgent( l_second.id() ) );
+        assertEquals( 1, l_group.size() );
+    }
+
+    /**
+     * test that a final group is archived once and releases its members and result
+     */
+    public void testArchive()
+    {
+        final CEnvironment l_environment = new CEnvironment( 3, "foo.h5" );
+        final CChairAgent l_chair = this.chair( l_environment );
+        final CGroup l_group = new CGroup( this.agent( l_environment, l_chair ), "RANDOM", 2 );
+
+        assertTrue( l_group.addRandom( this.agent( l_environment, l_chair ) ) );
+        assertNull( l_group.archive() );
+
+        assertTrue( l_group.startProgress() );
+        assertTrue( l_group.reset() );
+        l_group.updateBasic( l_chair, CBallot.of( 0b101, 4 ) );
+        assertTrue( l_group.finish() );
+
+        final int[] l_record = l_group.archive();
+        assertTrue( Arrays.equals( new int[]{l_group.id(), 2, 1, 0, 1, 0}, l_record ) );
+        assertEquals( EGroupState.ARCHIVED, l_group.state() );
+        assertEquals( 0, l_group.size() );
+        assertNull( l_group.result() );
+        assertNull( l_group.archive() );
+    }
+
+    /**
+     * test lookup, membership and removal by agent id
+     */
+    public void testMembership()
+    {
+        final CEnvironment l_environment = new CEnvironment( 3, "foo.h5" );
+        final CChairAgent l_chair = this.chair( l_environment );
+        final List<CVotingAgent> l_agents = new ArrayList<>();
+        for ( int i = 0; i < 6; i++ )
+            l_agents.add( this.agent( l_environment, l_chair ) );
+
+        // ids are dense within the environment
+        for ( int i = 0; i < l_agents.size(); i++ )
+            assertEquals( i, l_agents.get( i ).id() );
+
+        final CGroup l_group = new CGroup( l_agents.get( 0 ), "RANDOM", 5 );
+        for ( int i = 1; i < 5; i++ )
+            assertTrue( l_group.addRandom( l_agents.get( i ) ) );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertTrue( l_group.contains( l_agents.get( i ) ) );
+            assertSame( l_agents.get( i ), l_group.determineAgent( i ) );
+        }
+        assertFalse( l_group.contains( l_agents.get( 5 ) ) );
+        assertNull( l_group.determineAgent( 5 ) );
+        assertNull( l_group.determineAgent( -1 ) );
+
+        // removing a member in the middle moves the last member, all others are still found
+        l_group.remove( l_agents.get( 1 ) );
+        l_group.remove( l_agents.get( 1 ) );
+        l_group.remove( l_agents.get( 5 ) );
+        assertEquals( 4, l_group.size() );
+        assertNull( l_group.determineAgent( 1 ) );
+        for ( final int l_id : new int[]{0, 2, 3, 4} )
+            assertSame( l_agents.get( l_id ), l_group.determineAgent( l_id ) );
+
+        l_group.remove( l_agents.get( 4 ) );
+        l_group.remove( l_agents.get( 0 ) );
+        assertEquals( 2, l_group.size() );
+        assertSame( l_agents.get( 2 ), l_group.determineAgent( 2 ) );
+        assertSame( l_agents.get( 3 ), l_group.determineAgent( 3 ) );
+    }
+
+    /**
+     * create chair agent
+     *
+     * @param p_environment environment
+     * @return chair
+     */
+    private CChairAgent chair( final CEnvironment p_environment )
+    {
+        return new CChairAgent( "chair", new CDefaultAgentConfiguration<>(), p_environment, "RANDOM", "BASIC", "foo.h5" );
+    }
+
+    /**
+     * create voting agent
+     *
+     * @param p_environment environment
+     * @param p_chair chair
+     * @return voting agent
+     */
+    private CVotingAgent agent( final CEnvironment p_environment, final CChairAgent p_chair )
+    {
+        return new CVotingAgent( "agent", new CDefaultAgentConfiguration<>(), p_chair, p_environment, 6, "RANDOM", "foo.h5" );
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import cern.colt.bitvector.BitVector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Unit test for CApproximateMinimaxApproval.
+ */
+public final class CApproximateMinimaxApprovalTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CApproximateMinimaxApprovalTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CApproximateMinimaxApprovalTest.class );
+    }
+
+
+    /**
+     * test the approximation guarantee and the lower bound against the exact rule
+     */
+    public void testBounds()
+    {
+        final Random l_random = new Random( 9 );
+
+        for ( int l_run = 0; l_run < 30; l_run++ )
+        {
+            final int l_altNum = 6 + l_random.nextInt( 9 );
+            final int l_comSize = 1 + l_random.nextInt( l_altNum - 1 );
+            final List<String> l_alternatives = Collections.nCopies( l_altNum, "" );
+            final List<BitVector> l_votes = random( l_random, 1 + l_random.nextInt( 15 ), l_altNum );
+
+            final CMinimaxResult l_result = new CApproximateMinimaxApproval().applyRuleResult( l_alternatives, new CProfile( CBallot.of( l_votes ) ), l_comSize );
+            final int l_optimum = maxHD( l_votes, new CMinimaxApproval().applyRuleBV( l_alternatives, l_votes, l_comSize ) );
+
+            assertEquals( l_comSize, l_result.committee().cardinality() );
+            assertEquals( maxHD( l_votes, l_result.committee().toBitVector() ), l_result.maxHD() );
+            assertTrue( l_result.lowerBound() <= l_optimum );
+            assertTrue( l_result.maxHD() <= 3 * l_optimum );
+            assertEquals( l_result.maxHD() == l_optimum && l_optimum == l_result.lowerBound(), l_result.optimal() );
+        }
+    }
+
+    /**
+     * test more alternatives than fit into a single word
+     */
+    public void testLarge()
+    {
+        final Random l_random = new Random( 11 );
+        final int l_altNum = 150;
+        final List<BitVector> l_votes = random( l_random, 40, l_altNum );
+
+        final CMinimaxResult l_result = new CApproximateMinimaxApproval().applyRuleResult(
+            Collections.nCopies( l_altNum, "" ), new CProfile( CBallot.of( l_votes ) ), 20 );
+
+        assertEquals( 20, l_result.committee().cardinality() );
+        assertEquals( maxHD( l_votes, l_result.committee().toBitVector() ), l_result.maxHD() );
+        assertTrue( l_result.lowerBound() <= l_result.maxHD() );
+        assertTrue( l_result.ratio() <= 3 );
+    }
+
+    /**
+     * create random votes
+     *
+     * @param p_random random generator
+     * @param p_number number of votes
+     * @param p_altNum number of alternatives
+     * @return votes
+     */
+    private static List<BitVector> random( final Random p_random, final int p_number, final int p_altNum )
+    {
+        final List<BitVector> l_votes = new ArrayList<>();
+        for ( int i = 0; i < p_number; i++ )
+        {
+            final BitVector l_vote = new BitVector( p_altNum );
+            for ( int j = 0; j < p_altNum; j++ )
+                l_vote.put( j, p_random.nextInt( 3 ) == 0 );
+            l_votes.add( l_vote );
+        }
+        return l_votes;
+    }
+
+    /**
+     * maximal Hamming distance of a committee
+     *
+     * @param p_votes votes
+     * @param p_committee committee
+     * @return maximal Hamming distance
+     */
+    private static int maxHD( final List<BitVector> p_votes, final BitVector p_committee )
+    {
+        int l_maxHD = 0;
+        for ( final BitVector l_vote : p_votes )
+        {
+            final BitVector l_distance = l_vote.copy();
+            l_distance.xor( p_committee );
+            l_maxHD = Math.max( l_maxHD, l_distance.cardinality() );
+        }
+        return l_maxHD;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import cern.colt.bitvector.BitVector;
+
+import java.util.Random;
+
+
+/**
+ * Unit test for CBallot.
+ */
+public final class CBallotTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CBallotTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CBallotTest.class );
+    }
+
+
+    /**
+     * test equality and conversion
+     */
+    public void testEquality()
+    {
+        final BitVector l_vector = new BitVector( 6 );
+        l_vector.put( 0, true );
+        l_vector.put( 3, true );
+
+        final CBallot l_ballot = CBallot.of( l_vector );
+
+        assertEquals( CBallot.of( 0b001001, 6 ), l_ballot );
+        assertEquals( CBallot.of( 0b001001, 6 ).hashCode(), l_ballot.hashCode() );
+        assertFalse( CBallot.of( 0b001001, 7 ).equals( l_ballot ) );
+        assertEquals( CBallot.of( 0b1001001, 6 ), l_ballot );
+        assertEquals( l_vector, l_ballot.toBitVector() );
+        assertEquals( l_vector.toString(), l_ballot.toString() );
+        assertEquals( 2, l_ballot.cardinality() );
+        assertTrue( l_ballot.get( 3 ) );
+        assertFalse( l_ballot.get( 4 ) );
+
+        // changes of the vector do not affect the ballot
+        l_vector.put( 1, true );
+        assertEquals( CBallot.of( 0b001001, 6 ), l_ballot );
+    }
+
+    /**
+     * test distances against bit vector operations for several words
+     */
+    public void testDistances()
+    {
+        final Random l_random = new Random( 13 );
+
+        for ( int l_run = 0; l_run < 100; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 200 );
+            final BitVector l_first = new BitVector( l_altNum );
+            final BitVector l_second = new BitVector( l_altNum );
+            for ( int j = 0; j < l_altNum; j++ )
+            {
+                l_first.put( j, l_random.nextBoolean() );
+                l_second.put( j, l_random.nextBoolean() );
+            }
+
+            final BitVector l_xor = l_first.copy();
+            l_xor.xor( l_second );
+            final BitVector l_and = l_first.copy();
+            l_and.and( l_second );
+
+            assertEquals( l_xor.cardinality(), CBallot.of( l_first ).hammingDistance( CBallot.of( l_second ) ) );
+            assertEquals( l_and.cardinality(), CBallot.of( l_first ).intersectCount( CBallot.of( l_second ) ) );
+            assertEquals( l_first.cardinality(), CBallot.of( l_first ).cardinality() );
+        }
+    }
+}
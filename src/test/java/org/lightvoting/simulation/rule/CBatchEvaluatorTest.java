@@ -0,0 +1,115 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Unit test for CBatchEvaluator.
+ */
+public final class CBatchEvaluatorTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CBatchEvaluatorTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CBatchEvaluatorTest.class );
+    }
+
+    /**
+     * test that batched elections return the committees of the rules
+     */
+    public void testBatch()
+    {
+        final Random l_random = new Random( 20 );
+        final CBatchEvaluator l_evaluator = new CBatchEvaluator( 4, new CResultCache( 64 ) );
+        final List<String> l_alternatives = Collections.nCopies( 10, "POI" );
+
+        for ( final String l_name : new String[]{"MINISUM", "MINIMAX", "PAV"} )
+        {
+            final IVotingRule l_rule = CVotingRules.get( l_name );
+            final List<CProfile> l_profiles = new ArrayList<>();
+
+            for ( int i = 0; i < 200; i++ )
+            {
+                final CProfile l_profile = new CProfile();
+                for ( int j = 0; j < 3; j++ )
+                    l_profile.add( CBallot.of( l_random.nextInt( 8 ), 10 ) );
+                l_profiles.add( l_profile );
+            }
+
+            final List<CompletableFuture<CBallot>> l_results = l_evaluator.submitAll( l_rule, l_alternatives, l_profiles, 3 );
+
+            // the submission holds a copy, so the profiles can be reused right away
+            final CProfile l_changed = l_profiles.get( 0 );
+            final CBallot l_expected = l_rule.applyRule( l_alternatives, l_changed, 3 );
+            l_changed.add( CBallot.of( 0b1111111111, 10 ) );
+            assertEquals( l_expected, l_results.get( 0 ).join() );
+
+            for ( int i = 1; i < l_profiles.size(); i++ )
+                assertEquals( l_rule.applyRule( l_alternatives, l_profiles.get( i ), 3 ), l_results.get( i ).join() );
+        }
+
+        assertEquals( 600, l_evaluator.requests() );
+        assertTrue( l_evaluator.batches() > 0 && l_evaluator.batches() <= 600 );
+    }
+
+    /**
+     * test that a failing election only fails its own future
+     */
+    public void testFailure()
+    {
+        final CBatchEvaluator l_evaluator = new CBatchEvaluator( 2, new CResultCache( 8 ) );
+        final CProfile l_profile = new CProfile();
+        l_profile.add( CBallot.of( new long[]{0b11, 0}, 70 ) );
+
+        final CompletableFuture<CBallot> l_failed = l_evaluator.submit( CVotingRules.get( "MINIMAX" ), Collections.nCopies( 70, "POI" ), l_profile, 2 );
+        final CompletableFuture<CBallot> l_result = l_evaluator.submit( CVotingRules.get( "MINISUM" ), Collections.nCopies( 70, "POI" ), l_profile, 2 );
+
+        assertEquals( CBallot.of( new long[]{0b11, 0}, 70 ), l_result.join() );
+        assertTrue( l_failed.handle( ( i, j ) -> j != null ).join() );
+    }
+}
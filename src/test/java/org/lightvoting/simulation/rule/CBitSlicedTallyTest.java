@@ -0,0 +1,111 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * Unit test for CBitSlicedTally.
+ */
+public final class CBitSlicedTallyTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CBitSlicedTallyTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CBitSlicedTallyTest.class );
+    }
+
+
+    /**
+     * test transposition of a bit matrix
+     */
+    public void testTranspose()
+    {
+        final Random l_random = new Random( 31 );
+        final long[] l_matrix = new long[Long.SIZE];
+        for ( int i = 0; i < l_matrix.length; i++ )
+            l_matrix[i] = l_random.nextLong();
+
+        final long[] l_transposed = l_matrix.clone();
+        CBitSlicedTally.transpose( l_transposed );
+
+        for ( int i = 0; i < Long.SIZE; i++ )
+            for ( int k = 0; k < Long.SIZE; k++ )
+                assertEquals( l_matrix[i] >>> k & 1, l_transposed[k] >>> i & 1 );
+    }
+
+    /**
+     * test the weighted tally against the tally ballot by ballot
+     */
+    public void testTally()
+    {
+        final Random l_random = new Random( 37 );
+
+        for ( int l_run = 0; l_run < 30; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 150 );
+            final CProfile l_profile = new CProfile();
+
+            for ( int i = l_random.nextInt( 300 ); i >= 0; i-- )
+            {
+                final long[] l_words = new long[( l_altNum + 63 ) >>> 6];
+                for ( int j = 0; j < l_altNum; j++ )
+                    if ( l_random.nextInt( 3 ) == 0 )
+                        l_words[j >>> 6] |= 1L << j;
+                l_profile.add( CBallot.of( l_words, l_altNum ), 1 + l_random.nextInt( 1000 ) );
+            }
+
+            final int[] l_expected = new int[l_altNum];
+            for ( int i = 0; i < l_profile.distinct(); i++ )
+                for ( int j = 0; j < l_altNum; j++ )
+                    if ( l_profile.ballot( i ).get( j ) )
+                        l_expected[j] += l_profile.count( i );
+
+            final int[] l_scores = new int[l_altNum];
+            CBitSlicedTally.tally( l_profile, l_altNum, l_scores );
+
+            assertTrue( Arrays.equals( l_expected, l_scores ) );
+        }
+    }
+}
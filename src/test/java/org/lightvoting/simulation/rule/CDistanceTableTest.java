@@ -0,0 +1,119 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Random;
+
+
+/**
+ * Unit test for CDistanceTable.
+ */
+public final class CDistanceTableTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CDistanceTableTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CDistanceTableTest.class );
+    }
+
+    /**
+     * test that tables are shared and only built for small spaces
+     */
+    public void testShared()
+    {
+        assertSame( CDistanceTable.of( 6, 3 ), CDistanceTable.of( 6, 3 ) );
+        assertEquals( 20, CDistanceTable.of( 6, 3 ).size() );
+        assertNull( CDistanceTable.of( 17, 2 ) );
+        assertNull( CDistanceTable.of( 16, 8 ) );
+    }
+
+    /**
+     * test that the size check agrees with the built tables
+     */
+    public void testFits()
+    {
+        assertTrue( CDistanceTable.fits( 6, 3 ) );
+        assertTrue( CDistanceTable.fits( 16, 1 ) );
+        assertFalse( CDistanceTable.fits( 17, 2 ) );
+        assertFalse( CDistanceTable.fits( 16, 8 ) );
+        assertFalse( CDistanceTable.fits( 6, 7 ) );
+        assertNull( CDistanceTable.of( 6, 7 ) );
+    }
+
+    /**
+     * test the reductions against direct computation of the distances
+     */
+    public void testReductions()
+    {
+        final Random l_random = new Random( 3 );
+        final CDistanceTable l_table = CDistanceTable.of( 10, 4 );
+        final long[] l_ballots = new long[25];
+        final int[] l_counts = new int[l_ballots.length];
+
+        for ( int i = 0; i < l_ballots.length; i++ )
+        {
+            l_ballots[i] = l_random.nextInt( 1 << 10 );
+            l_counts[i] = 1 + l_random.nextInt( 5 );
+        }
+
+        final byte[] l_max = new byte[l_table.size()];
+        final int[] l_sum = new int[l_table.size()];
+        l_table.max( l_ballots, l_max );
+        l_table.sum( l_ballots, l_counts, l_sum );
+
+        for ( int j = 0; j < l_table.size(); j++ )
+        {
+            int l_expectedMax = -1;
+            int l_expectedSum = 0;
+            for ( int i = 0; i < l_ballots.length; i++ )
+            {
+                final int l_distance = Long.bitCount( l_ballots[i] ^ l_table.committee( j ) );
+                assertEquals( l_distance, l_table.distance( l_ballots[i], j ) );
+                l_expectedMax = Math.max( l_expectedMax, l_distance );
+                l_expectedSum += l_counts[i] * l_distance;
+            }
+
+            assertEquals( l_expectedMax, l_max[j] );
+            assertEquals( l_expectedSum, l_sum[j] );
+        }
+    }
+}
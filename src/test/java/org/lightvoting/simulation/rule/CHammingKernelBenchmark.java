@@ -0,0 +1,86 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import java.util.Random;
+
+
+/**
+ * benchmark of the column kernel against the scalar kernel on a large block, not part of the unit tests
+ */
+public final class CHammingKernelBenchmark
+{
+    /**
+     * hidden constructor
+     */
+    private CHammingKernelBenchmark()
+    {
+    }
+
+    /**
+     * print the timing of both kernels
+     *
+     * @param p_args unused
+     */
+    public static void main( final String[] p_args )
+    {
+        final Random l_random = new Random( 23 );
+        final long[][] l_ballots = new long[4096][2];
+        for ( int i = 0; i < l_ballots.length; i++ )
+            for ( int j = 0; j < 2; j++ )
+                l_ballots[i][j] = l_random.nextLong();
+
+        final long[][] l_transposed = CHammingKernel.transpose( l_ballots, 2 );
+        final int[] l_distances = new int[l_ballots.length];
+        final long[] l_committee = new long[2];
+
+        for ( int l_round = 0; l_round < 3; l_round++ )
+        {
+            long l_checksum = 0;
+
+            long l_start = System.nanoTime();
+            for ( int i = 0; i < 1000; i++ )
+            {
+                l_committee[0] = i;
+                l_committee[1] = ~i;
+                CHammingKernel.distancesScalar( l_ballots, l_committee, l_distances );
+                l_checksum += l_distances[i];
+            }
+            final long l_scalar = System.nanoTime() - l_start;
+
+            l_start = System.nanoTime();
+            for ( int i = 0; i < 1000; i++ )
+            {
+                l_committee[0] = i;
+                l_committee[1] = ~i;
+                CHammingKernel.distances( l_transposed, l_ballots.length, l_committee, l_distances );
+                l_checksum -= l_distances[i];
+            }
+            final long l_columns = System.nanoTime() - l_start;
+
+            System.out.println( "distances of 1000 committees to " + l_ballots.length + " ballots: scalar " + l_scalar / 1000000
+                                + " ms, columns " + l_columns / 1000000 + " ms, checksum " + l_checksum );
+        }
+    }
+}
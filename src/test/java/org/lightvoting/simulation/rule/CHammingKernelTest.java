@@ -0,0 +1,86 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Random;
+
+
+/**
+ * Unit test for CHammingKernel.
+ */
+public final class CHammingKernelTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CHammingKernelTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CHammingKernelTest.class );
+    }
+
+    /**
+     * test the column kernel against the scalar loop on ballots of several words
+     */
+    public void testDistances()
+    {
+        final Random l_random = new Random( 21 );
+
+        for ( int l_run = 0; l_run < 20; l_run++ )
+        {
+            final int l_words = 1 + l_random.nextInt( 4 );
+            final long[][] l_ballots = new long[l_random.nextInt( 300 )][l_words];
+            for ( int i = 0; i < l_ballots.length; i++ )
+                for ( int j = 0; j < l_words; j++ )
+                    l_ballots[i][j] = l_random.nextLong();
+
+            final long[] l_committee = new long[l_words];
+            for ( int j = 0; j < l_words; j++ )
+                l_committee[j] = l_random.nextLong();
+
+            final int[] l_scalar = new int[l_ballots.length];
+            final int[] l_columns = new int[l_ballots.length];
+            CHammingKernel.distancesScalar( l_ballots, l_committee, l_scalar );
+            CHammingKernel.distances( CHammingKernel.transpose( l_ballots, l_words ), l_ballots.length, l_committee, l_columns );
+
+            for ( int i = 0; i < l_ballots.length; i++ )
+                assertEquals( l_scalar[i], l_columns[i] );
+        }
+    }
+}
@@ -27,9 +27,13 @@ import cern.colt.bitvector.BitVector;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import org.lightvoting.simulation.combinations.CCommitteeEnumerator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -106,6 +110,184 @@ public class CMinimaxApprovalTest extends TestCase
         System.out.println( l_bitVector );
     }
 
+    /**
+     * test that the branch-and-bound search returns the same committee as the exhaustive search,
+     * including lexicographic tie-breaking
+     */
+    public void testBranchAndBound()
+    {
+        final CMinimaxApproval l_minimaxApproval = new CMinimaxApproval();
+        final Random l_random = new Random( 42 );
+
+        for ( int l_run = 0; l_run < 200; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 12 );
+            final int l_comSize = l_random.nextInt( l_altNum + 1 );
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int i = l_random.nextInt( 8 ); i >= 0; i-- )
+            {
+                final BitVector l_vote = new BitVector( l_altNum );
+                for ( int j = 0; j < l_altNum; j++ )
+                    l_vote.put( j, l_random.nextBoolean() );
+                l_votes.add( l_vote );
+            }
+
+            final BitVector l_result = l_minimaxApproval.applyRuleBV( Collections.nCopies( l_altNum, "POI" ), l_votes, l_comSize );
+
+            assertEquals( this.exhaustive( l_votes, l_altNum, l_comSize ), l_result );
+        }
+    }
+
+    /**
+     * test the branch-and-bound search for alternative numbers without distance table
+     */
+    public void testBranchAndBoundLarge()
+    {
+        final CMinimaxApproval l_minimaxApproval = new CMinimaxApproval();
+        final Random l_random = new Random( 17 );
+
+        for ( int l_run = 0; l_run < 50; l_run++ )
+        {
+            final int l_altNum = 17 + l_random.nextInt( 8 );
+            final int l_comSize = l_random.nextInt( 4 );
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int i = l_random.nextInt( 8 ); i >= 0; i-- )
+            {
+                final BitVector l_vote = new BitVector( l_altNum );
+                for ( int j = 0; j < l_altNum; j++ )
+                    l_vote.put( j, l_random.nextInt( 5 ) == 0 );
+                l_votes.add( l_vote );
+            }
+
+            final BitVector l_result = l_minimaxApproval.applyRuleBV( Collections.nCopies( l_altNum, "POI" ), l_votes, l_comSize );
+
+            assertEquals( this.exhaustive( l_votes, l_altNum, l_comSize ), l_result );
+        }
+    }
+
+    /**
+     * test that the parallel evaluation returns the same committee as the sequential search
+     */
+    public void testParallel()
+    {
+        final CMinimaxApproval l_sequential = new CMinimaxApproval();
+        final CMinimaxApproval l_parallel = new CMinimaxApproval( 4 );
+        final Random l_random = new Random( 23 );
+
+        for ( int l_run = 0; l_run < 5; l_run++ )
+        {
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int i = 0; i < 20; i++ )
+            {
+                final BitVector l_vote = new BitVector( 20 );
+                for ( int j = 0; j < 20; j++ )
+                    l_vote.put( j, l_random.nextInt( 3 ) == 0 );
+                l_votes.add( l_vote );
+            }
+
+            assertEquals(
+                l_sequential.applyRuleBV( Collections.nCopies( 20, "POI" ), l_votes, 8 ),
+                l_parallel.applyRuleBV( Collections.nCopies( 20, "POI" ), l_votes, 8 )
+            );
+        }
+    }
+
+    /**
+     * test the budgeted search, an unlimited budget yields the exact winner, a small budget
+     * yields a committee whose maximal Hamming distance is enclosed by the bounds
+     */
+    public void testBudget()
+    {
+        final CMinimaxApproval l_minimaxApproval = new CMinimaxApproval();
+        final Random l_random = new Random( 29 );
+
+        for ( int l_run = 0; l_run < 20; l_run++ )
+        {
+            final int l_altNum = 17 + l_random.nextInt( 4 );
+            final int l_comSize = 2 + l_random.nextInt( 4 );
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int i = 0; i < 12; i++ )
+            {
+                final BitVector l_vote = new BitVector( l_altNum );
+                for ( int j = 0; j < l_altNum; j++ )
+                    l_vote.put( j, l_random.nextInt( 3 ) == 0 );
+                l_votes.add( l_vote );
+            }
+
+            final List<String> l_alternatives = Collections.nCopies( l_altNum, "POI" );
+            final BitVector l_exact = this.exhaustive( l_votes, l_altNum, l_comSize );
+            final int l_optimum = maxHD( l_votes, l_exact );
+
+            final CMinimaxResult l_complete = l_minimaxApproval.applyRuleResult( l_alternatives, new CProfile( CBallot.of( l_votes ) ), l_comSize, Long.MAX_VALUE );
+            assertEquals( l_exact, l_complete.committee().toBitVector() );
+            assertTrue( l_complete.optimal() );
+
+            final CMinimaxResult l_partial = l_minimaxApproval.applyRuleResult( l_alternatives, new CProfile( CBallot.of( l_votes ) ), l_comSize, 10 );
+            assertEquals( l_comSize, l_partial.committee().cardinality() );
+            assertEquals( maxHD( l_votes, l_partial.committee().toBitVector() ), l_partial.maxHD() );
+            assertTrue( l_partial.lowerBound() <= l_optimum && l_optimum <= l_partial.maxHD() );
+
+            final CMinimaxResult l_timed = l_minimaxApproval.applyRuleResult( l_alternatives, new CProfile( CBallot.of( l_votes ) ), l_comSize, 1, TimeUnit.SECONDS );
+            assertTrue( l_timed.lowerBound() <= l_optimum && l_optimum <= l_timed.maxHD() );
+        }
+    }
+
+    /**
+     * exhaustive Minimax Approval with lexicographic tie-breaking
+     *
+     * @param p_votes votes
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return winning committee
+     */
+    private BitVector exhaustive( final List<BitVector> p_votes, final int p_altNum, final int p_comSize )
+    {
+        final CCommitteeEnumerator l_committees = new CCommitteeEnumerator( p_altNum, p_comSize );
+        long l_winner = 0;
+        int l_min = Integer.MAX_VALUE;
+
+        while ( l_committees.hasNext() )
+        {
+            final long l_committee = l_committees.nextLong();
+            int l_max = 0;
+            for ( final BitVector l_vote : p_votes )
+                l_max = Math.max( l_max, Long.bitCount( l_committee ^ l_vote.getLongFromTo( 0, p_altNum - 1 ) ) );
+
+            if ( l_max < l_min || l_max == l_min && CCommitteeEnumerator.precedes( l_committee, l_winner ) )
+            {
+                l_min = l_max;
+                l_winner = l_committee;
+            }
+        }
+
+        final BitVector l_result = new BitVector( p_altNum );
+        l_result.putLongFromTo( l_winner, 0, p_altNum - 1 );
+        return l_result;
+    }
+
+    /**
+     * maximal Hamming distance of a committee
+     *
+     * @param p_votes votes
+     * @param p_committee committee
+     * @return maximal Hamming distance
+     */
+    private static int maxHD( final List<BitVector> p_votes, final BitVector p_committee )
+    {
+        int l_maxHD = 0;
+        for ( final BitVector l_vote : p_votes )
+        {
+            final BitVector l_distance = l_vote.copy();
+            l_distance.xor( p_committee );
+            l_maxHD = Math.max( l_maxHD, l_distance.cardinality() );
+        }
+        return l_maxHD;
+    }
+
 }
 
 // TODO add more tests
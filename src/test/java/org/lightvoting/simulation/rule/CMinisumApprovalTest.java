@@ -32,7 +32,12 @@ import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 /**
@@ -202,5 +207,44 @@ public class CMinisumApprovalTest extends TestCase
         assertFalse( l_result.get( 4 ) );
         assertFalse( l_result.get( 5 ) );
     }
-}
 
+    /**
+     * test Minisum Approval against a stable sort of the approval scores for random instances
+     */
+
+    public void testRandomProfiles()
+    {
+        final CMinisumApproval l_tester = new CMinisumApproval();
+        final Random l_random = new Random( 7 );
+
+        for ( int l_run = 0; l_run < 200; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 100 );
+            final int l_comSize = l_random.nextInt( l_altNum + 1 );
+            final int[] l_scores = new int[l_altNum];
+            final List<BitVector> l_testVotes = new ArrayList<>();
+
+            for ( int i = l_random.nextInt( 10 ); i >= 0; i-- )
+            {
+                final BitVector l_vote = new BitVector( l_altNum );
+                for ( int j = 0; j < l_altNum; j++ )
+                    if ( l_random.nextBoolean() )
+                    {
+                        l_vote.put( j, true );
+                        l_scores[j]++;
+                    }
+                l_testVotes.add( l_vote );
+            }
+
+            final List<Integer> l_expected = IntStream.range( 0, l_altNum ).boxed()
+                                                      .sorted( Comparator.comparing( i -> -l_scores[i] ) )
+                                                      .limit( l_comSize )
+                                                      .collect( Collectors.toList() );
+
+            final BitVector l_result = l_tester.applyRuleBV( Collections.nCopies( l_altNum, "POI" ), l_testVotes, l_comSize );
+
+            assertEquals( l_comSize, l_result.cardinality() );
+            l_expected.forEach( i -> assertTrue( l_result.get( i ) ) );
+        }
+    }
+}
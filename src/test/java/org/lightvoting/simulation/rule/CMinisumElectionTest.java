@@ -0,0 +1,96 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import cern.colt.bitvector.BitVector;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Unit test for CMinisumElection.
+ */
+public final class CMinisumElectionTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CMinisumElectionTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CMinisumElectionTest.class );
+    }
+
+    /**
+     * test that the incremental result equals Minisum Approval on the current ballots
+     * while ballots are added and removed
+     */
+    public void testIncremental()
+    {
+        final Random l_random = new Random( 11 );
+        final CMinisumApproval l_minisum = new CMinisumApproval();
+
+        for ( int l_run = 0; l_run < 50; l_run++ )
+        {
+            final int l_altNum = 2 + l_random.nextInt( 20 );
+            final int l_comSize = l_random.nextInt( l_altNum + 1 );
+            final CMinisumElection l_election = new CMinisumElection( l_altNum, l_comSize );
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int l_step = 0; l_step < 100; l_step++ )
+            {
+                if ( l_votes.isEmpty() || l_random.nextInt( 3 ) > 0 )
+                {
+                    final BitVector l_vote = new BitVector( l_altNum );
+                    for ( int j = 0; j < l_altNum; j++ )
+                        l_vote.put( j, l_random.nextInt( 4 ) == 0 );
+                    l_votes.add( l_vote );
+                    l_election.add( CBallot.of( l_vote ) );
+                }
+                else
+                    l_election.remove( CBallot.of( l_votes.remove( l_random.nextInt( l_votes.size() ) ) ) );
+
+                assertEquals( l_votes.size(), l_election.size() );
+                assertEquals( l_minisum.applyRuleBV( Collections.nCopies( l_altNum, "POI" ), l_votes, l_comSize ), l_election.result().toBitVector() );
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import cern.colt.bitvector.BitVector;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Unit test for CProfile.
+ */
+public final class CProfileTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CProfileTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CProfileTest.class );
+    }
+
+    /**
+     * test counting of distinct ballots
+     */
+    public void testCounts()
+    {
+        final CBallot l_vote1 = CBallot.of( 0b0001, 4 );
+        final CBallot l_vote2 = CBallot.of( 0b0010, 4 );
+
+        final CProfile l_profile = new CProfile();
+        l_profile.add( l_vote1 );
+        l_profile.add( l_vote2 );
+        l_profile.add( CBallot.of( 0b0001, 4 ) );
+
+        assertEquals( 3, l_profile.size() );
+        assertEquals( 2, l_profile.distinct() );
+        assertEquals( 2, l_profile.count( 0 ) );
+        assertFalse( l_profile.remove( CBallot.of( 0b0110, 4 ) ) );
+
+        assertTrue( l_profile.remove( l_vote1 ) );
+        assertTrue( l_profile.remove( l_vote1 ) );
+        assertFalse( l_profile.remove( l_vote1 ) );
+
+        assertEquals( 1, l_profile.size() );
+        assertEquals( 1, l_profile.distinct() );
+        assertEquals( l_vote2, l_profile.ballot( 0 ) );
+    }
+
+    /**
+     * test that both rules return the same committee on the profile as on the list of votes
+     */
+    public void testRules()
+    {
+        final Random l_random = new Random( 5 );
+        final CMinisumApproval l_minisum = new CMinisumApproval();
+        final CMinimaxApproval l_minimax = new CMinimaxApproval();
+
+        for ( int l_run = 0; l_run < 100; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 6 );
+            final int l_comSize = l_random.nextInt( l_altNum + 1 );
+            final List<String> l_alternatives = Collections.nCopies( l_altNum, "POI" );
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int i = l_random.nextInt( 30 ); i >= 0; i-- )
+            {
+                final BitVector l_vote = new BitVector( l_altNum );
+                for ( int j = 0; j < l_altNum; j++ )
+                    l_vote.put( j, l_random.nextBoolean() );
+                l_votes.add( l_vote );
+            }
+
+            final CProfile l_profile = new CProfile( CBallot.of( l_votes ) );
+
+            assertEquals( l_votes.size(), l_profile.size() );
+            assertEquals( l_minisum.applyRuleBV( l_alternatives, l_votes, l_comSize ), l_minisum.applyRule( l_alternatives, l_profile, l_comSize ).toBitVector() );
+            assertEquals( l_minimax.applyRuleBV( l_alternatives, l_votes, l_comSize ), l_minimax.applyRule( l_alternatives, l_profile, l_comSize ).toBitVector() );
+        }
+    }
+}
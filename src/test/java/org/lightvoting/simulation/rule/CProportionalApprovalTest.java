@@ -0,0 +1,161 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import cern.colt.bitvector.BitVector;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Unit test for CProportionalApproval.
+ */
+public final class CProportionalApprovalTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CProportionalApprovalTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CProportionalApprovalTest.class );
+    }
+
+    /**
+     * test the classic example in which PAV elects a proportional committee and Minisum Approval does not
+     */
+    public void testProportional()
+    {
+        final List<BitVector> l_votes = new ArrayList<>();
+        for ( int i = 0; i < 6; i++ )
+            l_votes.add( CBallot.of( 0b0111, 4 ).toBitVector() );
+        for ( int i = 0; i < 4; i++ )
+            l_votes.add( CBallot.of( 0b1000, 4 ).toBitVector() );
+
+        final List<String> l_alternatives = Collections.nCopies( 4, "POI" );
+
+        assertEquals( CBallot.of( 0b0111, 4 ).toBitVector(), new CMinisumApproval().applyRuleBV( l_alternatives, l_votes, 3 ) );
+        assertEquals( CBallot.of( 0b1011, 4 ).toBitVector(), new CProportionalApproval().applyRuleBV( l_alternatives, l_votes, 3 ) );
+    }
+
+    /**
+     * test that the lazy greedy selection matches the naive selection, which rescores all alternatives in every round
+     */
+    public void testLazy()
+    {
+        final Random l_random = new Random( 18 );
+
+        for ( int l_run = 0; l_run < 200; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 80 );
+            final int l_comSize = l_random.nextInt( Math.min( l_altNum, 12 ) + 1 );
+            final List<String> l_alternatives = Collections.nCopies( l_altNum, "POI" );
+            final List<BitVector> l_votes = new ArrayList<>();
+
+            for ( int i = l_random.nextInt( 60 ); i >= 0; i-- )
+            {
+                final BitVector l_vote = new BitVector( l_altNum );
+                for ( int j = 0; j < l_altNum; j++ )
+                    l_vote.put( j, l_random.nextInt( 4 ) == 0 );
+                l_votes.add( l_vote );
+            }
+
+            assertEquals( naive( l_votes, l_altNum, l_comSize ), new CProportionalApproval().applyRuleBV( l_alternatives, l_votes, l_comSize ) );
+        }
+    }
+
+    /**
+     * naive sequential PAV with exact rational gains scaled by lcm(1, ..., k)
+     *
+     * @param p_votes votes
+     * @param p_altNum number of alternatives
+     * @param p_comSize committee size
+     * @return committee
+     */
+    private static BitVector naive( final List<BitVector> p_votes, final int p_altNum, final int p_comSize )
+    {
+        long l_scale = 1;
+        for ( long i = 2; i <= p_comSize; i++ )
+            l_scale = l_scale / gcd( l_scale, i ) * i;
+
+        final BitVector l_committee = new BitVector( p_altNum );
+        for ( int l_round = 0; l_round < p_comSize; l_round++ )
+        {
+            int l_best = -1;
+            long l_bestGain = -1;
+            for ( int i = 0; i < p_altNum; i++ )
+            {
+                if ( l_committee.get( i ) )
+                    continue;
+
+                long l_gain = 0;
+                for ( final BitVector l_vote : p_votes )
+                    if ( l_vote.get( i ) )
+                    {
+                        final BitVector l_common = l_vote.copy();
+                        l_common.and( l_committee );
+                        l_gain += l_scale / ( l_common.cardinality() + 1 );
+                    }
+
+                if ( l_gain > l_bestGain )
+                {
+                    l_best = i;
+                    l_bestGain = l_gain;
+                }
+            }
+            l_committee.set( l_best );
+        }
+
+        return l_committee;
+    }
+
+    /**
+     * greatest common divisor
+     *
+     * @param p_first first number
+     * @param p_second second number
+     * @return greatest common divisor
+     */
+    private static long gcd( final long p_first, final long p_second )
+    {
+        return p_second == 0 ? p_first : gcd( p_second, p_first % p_second );
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+
+/**
+ * Unit test for CResultCache.
+ */
+public final class CResultCacheTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CResultCacheTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CResultCacheTest.class );
+    }
+
+
+    /**
+     * test that profiles with the same ballots share the result independent of the order of the ballots
+     */
+    public void testFingerprint()
+    {
+        final CResultCache l_cache = new CResultCache( 8 );
+        final AtomicInteger l_computations = new AtomicInteger();
+        final CBallot l_result = CBallot.of( 0b011, 3 );
+
+        final CProfile l_first = new CProfile( Arrays.asList( CBallot.of( 0b001, 3 ), CBallot.of( 0b110, 3 ), CBallot.of( 0b001, 3 ) ) );
+        final CProfile l_second = new CProfile( Arrays.asList( CBallot.of( 0b110, 3 ), CBallot.of( 0b001, 3 ), CBallot.of( 0b001, 3 ) ) );
+        final CProfile l_third = new CProfile( Arrays.asList( CBallot.of( 0b110, 3 ), CBallot.of( 0b110, 3 ), CBallot.of( 0b001, 3 ) ) );
+
+        assertTrue( Arrays.equals( l_first.fingerprint(), l_second.fingerprint() ) );
+        assertFalse( Arrays.equals( l_first.fingerprint(), l_third.fingerprint() ) );
+
+        assertSame( l_result, l_cache.get( "MINISUM", l_first, 3, 2, () -> compute( l_computations, l_result ) ) );
+        assertSame( l_result, l_cache.get( "MINISUM", l_second.fingerprint(), 3, 2, () -> compute( l_computations, l_result ) ) );
+        assertEquals( 1, l_computations.get() );
+
+        l_cache.get( "MINISUM", l_third, 3, 2, () -> compute( l_computations, l_result ) );
+        l_cache.get( "MINIMAX", l_first, 3, 2, () -> compute( l_computations, l_result ) );
+        l_cache.get( "MINISUM", l_first, 3, 1, () -> compute( l_computations, l_result ) );
+        assertEquals( 4, l_computations.get() );
+
+        assertEquals( 1, l_cache.hits() );
+        assertEquals( 4, l_cache.misses() );
+        assertEquals( 0.2, l_cache.hitRate(), 1e-9 );
+    }
+
+    /**
+     * test eviction of the least recently used result
+     */
+    public void testEviction()
+    {
+        final CResultCache l_cache = new CResultCache( 2 );
+        final AtomicInteger l_computations = new AtomicInteger();
+        final List<CProfile> l_profiles = Arrays.asList(
+            new CProfile( Collections.singletonList( CBallot.of( 0b01, 2 ) ) ),
+            new CProfile( Collections.singletonList( CBallot.of( 0b10, 2 ) ) ),
+            new CProfile( Collections.singletonList( CBallot.of( 0b11, 2 ) ) )
+        );
+
+        l_cache.get( "MINISUM", l_profiles.get( 0 ), 2, 1, () -> compute( l_computations, CBallot.of( 0b01, 2 ) ) );
+        l_cache.get( "MINISUM", l_profiles.get( 1 ), 2, 1, () -> compute( l_computations, CBallot.of( 0b10, 2 ) ) );
+        l_cache.get( "MINISUM", l_profiles.get( 0 ), 2, 1, () -> compute( l_computations, CBallot.of( 0b01, 2 ) ) );
+        l_cache.get( "MINISUM", l_profiles.get( 2 ), 2, 1, () -> compute( l_computations, CBallot.of( 0b01, 2 ) ) );
+        assertEquals( 2, l_cache.size() );
+
+        // the second profile was least recently used
+        l_cache.get( "MINISUM", l_profiles.get( 0 ), 2, 1, () -> compute( l_computations, CBallot.of( 0b01, 2 ) ) );
+        l_cache.get( "MINISUM", l_profiles.get( 1 ), 2, 1, () -> compute( l_computations, CBallot.of( 0b10, 2 ) ) );
+        assertEquals( 4, l_computations.get() );
+    }
+
+    /**
+     * test concurrent lookups
+     */
+    public void testConcurrent()
+    {
+        final CResultCache l_cache = new CResultCache( 16 );
+        final CMinisumApproval l_minisum = new CMinisumApproval();
+        final List<String> l_alternatives = Collections.nCopies( 6, "POI" );
+
+        IntStream.range( 0, 10000 ).parallel().forEach( i ->
+        {
+            final CProfile l_profile = new CProfile( Arrays.asList( CBallot.of( i % 64, 6 ), CBallot.of( ( i * 7 ) % 64, 6 ) ) );
+            assertEquals(
+                l_minisum.applyRule( l_alternatives, l_profile, 3 ),
+                l_cache.get( "MINISUM", l_profile, 6, 3, () -> l_minisum.applyRule( l_alternatives, l_profile, 3 ) )
+            );
+        } );
+
+        assertEquals( 10000, l_cache.hits() + l_cache.misses() );
+        assertTrue( l_cache.size() <= 16 );
+    }
+
+    /**
+     * count computation of a result
+     *
+     * @param p_computations counter
+     * @param p_result result
+     * @return result
+     */
+    private static CBallot compute( final AtomicInteger p_computations, final CBallot p_result )
+    {
+        p_computations.incrementAndGet();
+        return p_result;
+    }
+}
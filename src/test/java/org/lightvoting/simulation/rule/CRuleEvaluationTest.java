@@ -0,0 +1,136 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Unit test for CRuleEvaluation.
+ */
+public final class CRuleEvaluationTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CRuleEvaluationTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CRuleEvaluationTest.class );
+    }
+
+    /**
+     * test that the single pass evaluation matches the separate rules and the distances of the voters
+     */
+    public void testRules()
+    {
+        final Random l_random = new Random( 17 );
+        final IVotingRule l_minisum = CVotingRules.get( "MINISUM" );
+        final IVotingRule l_minimax = CVotingRules.get( "MINIMAX" );
+        final List<IVotingRule> l_rules = Arrays.asList( l_minisum, l_minimax, CVotingRules.get( "PAV" ), CVotingRules.get( "APPROXIMATEMINIMAX" ) );
+
+        for ( int l_run = 0; l_run < 100; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 20 );
+            final int l_comSize = l_random.nextInt( l_altNum + 1 );
+            final List<String> l_alternatives = Collections.nCopies( l_altNum, "POI" );
+            final CProfile l_profile = new CProfile();
+
+            for ( int i = l_random.nextInt( 100 ); i >= 0; i-- )
+                l_profile.add( CBallot.of( l_random.nextLong() & CMinimaxApproval.lowMask( l_altNum ), l_altNum ) );
+
+            final CRuleEvaluation l_evaluation = CRuleEvaluation.evaluate( l_alternatives, l_profile, l_comSize, l_rules );
+
+            for ( final IVotingRule l_rule : l_rules )
+                assertEquals( l_rule.applyRule( l_alternatives, l_profile, l_comSize ), l_evaluation.winner( l_rule ) );
+            assertEquals( l_profile.size(), l_evaluation.voters() );
+
+            for ( final IVotingRule l_rule : l_rules )
+            {
+                long l_sum = 0;
+                int l_max = -1;
+                for ( int i = 0; i < l_profile.distinct(); i++ )
+                {
+                    final int l_distance = l_profile.ballot( i ).hammingDistance( l_evaluation.winner( l_rule ) );
+                    assertEquals( l_distance, l_evaluation.distance( l_rule, i ) );
+                    l_sum += l_profile.count( i ) * l_distance;
+                    l_max = Math.max( l_max, l_distance );
+                }
+
+                assertEquals( l_sum, l_evaluation.sumHD( l_rule ) );
+                assertEquals( l_max, l_evaluation.maxHD( l_rule ) );
+            }
+
+            assertTrue( l_evaluation.sumHD( l_minisum ) <= l_evaluation.sumHD( l_minimax ) );
+            assertTrue( l_evaluation.maxHD( l_minimax ) <= l_evaluation.maxHD( l_minisum ) );
+        }
+    }
+
+    /**
+     * test that only the requested rules are evaluated
+     */
+    public void testSubset()
+    {
+        final CProfile l_profile = new CProfile();
+        l_profile.add( CBallot.of( 0b0011, 4 ) );
+        l_profile.add( CBallot.of( 0b0011, 4 ) );
+        l_profile.add( CBallot.of( 0b1100, 4 ) );
+
+        final IVotingRule l_minisum = CVotingRules.get( "MINISUM" );
+        final CRuleEvaluation l_evaluation = CRuleEvaluation.evaluate( Collections.nCopies( 4, "POI" ), l_profile, 2, Collections.singleton( l_minisum ) );
+
+        assertEquals( Collections.singleton( l_minisum ), l_evaluation.rules() );
+        assertEquals( CBallot.of( 0b0011, 4 ), l_evaluation.winner( l_minisum ) );
+        assertEquals( 4, l_evaluation.sumHD( l_minisum ) );
+        assertEquals( 2, l_evaluation.score( 0 ) );
+
+        try
+        {
+            l_evaluation.winner( CVotingRules.get( "MINIMAX" ) );
+            fail();
+        }
+        catch ( final IllegalArgumentException l_exception )
+        {
+            assertEquals( 2, l_evaluation.distinct() );
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Unit test for CSparseProfile.
+ */
+public final class CSparseProfileTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CSparseProfileTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CSparseProfileTest.class );
+    }
+
+
+    /**
+     * test sparse ballots against dense ballots
+     */
+    public void testBallots()
+    {
+        final Random l_random = new Random( 41 );
+
+        assertEquals( CSparseBallot.of( new int[]{1, 5}, 8 ), CSparseBallot.of( new int[]{5, 1, 5}, 8 ) );
+        assertEquals( "{1, 5}", CSparseBallot.of( new int[]{5, 1}, 8 ).toString() );
+
+        for ( int l_run = 0; l_run < 100; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 3000 );
+            final CSparseBallot l_first = random( l_random, l_altNum );
+            final CSparseBallot l_second = random( l_random, l_altNum );
+
+            assertEquals( l_first, CSparseBallot.of( l_first.toBallot() ) );
+            assertEquals( l_first.toBallot().hammingDistance( l_second.toBallot() ), l_first.hammingDistance( l_second ) );
+            assertEquals( l_first.toBallot().intersectCount( l_second.toBallot() ), l_first.intersectCount( l_second ) );
+        }
+    }
+
+    /**
+     * test tally, distances and Minisum Approval on sparse profiles against dense profiles
+     */
+    public void testProfile()
+    {
+        final Random l_random = new Random( 43 );
+        final CMinisumApproval l_minisum = new CMinisumApproval();
+
+        for ( int l_run = 0; l_run < 30; l_run++ )
+        {
+            final int l_altNum = 1 + l_random.nextInt( 2000 );
+            final int l_comSize = l_random.nextInt( Math.min( l_altNum, 20 ) + 1 );
+            final List<CSparseBallot> l_ballots = new ArrayList<>();
+            final CProfile l_dense = new CProfile();
+
+            for ( int i = l_random.nextInt( 100 ); i >= 0; i-- )
+            {
+                l_ballots.add( random( l_random, l_altNum ) );
+                l_dense.add( l_ballots.get( l_ballots.size() - 1 ).toBallot() );
+            }
+
+            final CSparseProfile l_rows = CSparseProfile.of( l_altNum, l_ballots );
+            final CSparseProfile l_distinct = CSparseProfile.of( l_altNum, l_dense );
+            final List<String> l_alternatives = Collections.nCopies( l_altNum, "POI" );
+            final CBallot l_committee = l_minisum.applyRule( l_alternatives, l_dense, l_comSize );
+
+            assertEquals( l_committee, l_minisum.applyRule( l_alternatives, l_rows, l_comSize ) );
+            assertEquals( l_committee, l_minisum.applyRule( l_alternatives, l_distinct, l_comSize ) );
+
+            int l_maxHD = -1;
+            for ( int i = 0; i < l_ballots.size(); i++ )
+            {
+                assertEquals( l_ballots.get( i ), l_rows.ballot( i ) );
+                l_maxHD = Math.max( l_maxHD, l_ballots.get( i ).toBallot().hammingDistance( l_committee ) );
+            }
+            assertEquals( l_maxHD, l_rows.maxDistance( CSparseBallot.of( l_committee ) ) );
+            assertEquals( l_maxHD, l_distinct.maxDistance( CSparseBallot.of( l_committee ) ) );
+        }
+    }
+
+    /**
+     * create random sparse ballot
+     *
+     * @param p_random random generator
+     * @param p_altNum number of alternatives
+     * @return ballot
+     */
+    private static CSparseBallot random( final Random p_random, final int p_altNum )
+    {
+        final int[] l_indices = new int[p_random.nextInt( 8 )];
+        for ( int i = 0; i < l_indices.length; i++ )
+            l_indices[i] = p_random.nextInt( p_altNum );
+        return CSparseBallot.of( l_indices, p_altNum );
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of LightVoting by Sophie Dennisen.                               #
+ * # Copyright (c) 2017, Sophie Dennisen (sophie.dennisen@tu-clausthal.de)              #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightvoting.simulation.rule;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Unit test for CVotingRules and CRuleSelector.
+ */
+public final class CVotingRulesTest extends TestCase
+{
+    /**
+     * Create the test case
+     *
+     * @param p_testName name of the test case
+     */
+    public CVotingRulesTest( final String p_testName )
+    {
+        super( p_testName );
+    }
+
+    /**
+     * Testsuite
+     *
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CVotingRulesTest.class );
+    }
+
+    /**
+     * test lookup of the registered rules
+     */
+    public void testRegistry()
+    {
+        assertTrue( CVotingRules.names().containsAll( Arrays.asList( "MINISUM", "MINIMAX", "APPROXIMATEMINIMAX", "PAV" ) ) );
+        assertSame( CVotingRules.get( "MINISUM" ), CVotingRules.get( "minisum" ) );
+        assertSame( CVotingRules.get( "MINIMAX" ), CVotingRules.of( "MINIMAX", 1, 10, TimeUnit.MILLISECONDS ) );
+        assertSame( CVotingRules.of( "MINIMAX", 4, 10, TimeUnit.MILLISECONDS ), CVotingRules.of( "minimax", 4, 10, TimeUnit.MILLISECONDS ) );
+        assertEquals( "MINIMAX", CVotingRules.of( "MINIMAX", 4, 10, TimeUnit.MILLISECONDS ).name() );
+
+        try
+        {
+            CVotingRules.register( new CMinisumApproval() );
+            fail();
+        }
+        catch ( final IllegalArgumentException l_exception )
+        {
+            assertTrue( l_exception.getMessage().contains( "MINISUM" ) );
+        }
+
+        try
+        {
+            CVotingRules.get( "BORDA" );
+            fail();
+        }
+        catch ( final IllegalArgumentException l_exception )
+        {
+            assertTrue( l_exception.getMessage().contains( "BORDA" ) );
+        }
+    }
+
+    /**
+     * test that the stateful elections of the rules return the same committees as the rules
+     */
+    public void testElections()
+    {
+        final Random l_random = new Random( 19 );
+
+        for ( final String l_name : Arrays.asList( "MINISUM", "MINIMAX" ) )
+        {
+            final IVotingRule l_rule = CVotingRules.get( l_name );
+            final IElection l_election = l_rule.election( 8, 3 );
+            final CProfile l_profile = new CProfile();
+            final List<String> l_alternatives = Collections.nCopies( 8, "POI" );
+
+            for ( int i = 0; i < 40; i++ )
+            {
+                final CBallot l_vote = CBallot.of( l_random.nextInt( 256 ), 8 );
+                l_profile.add( l_vote );
+                l_election.add( l_vote );
+                assertEquals( l_rule.applyRule( l_alternatives, l_profile, 3 ), l_election.result() );
+            }
+        }
+
+        assertNull( CVotingRules.get( "PAV" ).election( 8, 3 ) );
+        assertNull( CVotingRules.get( "MINIMAX" ).election( 64, 32 ) );
+    }
+
+    /**
+     * test that the selector prefers exact Minimax Approval and falls back to cheaper rules
+     */
+    public void testSelector()
+    {
+        final IVotingRule l_auto = CVotingRules.of( CVotingRules.AUTO, 1, 10, TimeUnit.MILLISECONDS );
+
+        assertEquals( "MINIMAX", l_auto.select( 100, 10, 3 ).name() );
+        assertEquals( "APPROXIMATEMINIMAX", l_auto.select( 100, 60, 30 ).name() );
+        assertEquals( "MINISUM", l_auto.select( 1000000, 100, 50 ).name() );
+
+        final CProfile l_profile = new CProfile();
+        l_profile.add( CBallot.of( 0b0011, 4 ) );
+        l_profile.add( CBallot.of( 0b0110, 4 ) );
+        assertEquals( CVotingRules.get( "MINIMAX" ).applyRule( Collections.nCopies( 4, "POI" ), l_profile, 2 ),
+                      l_auto.applyRule( Collections.nCopies( 4, "POI" ), l_profile, 2 ) );
+    }
+}